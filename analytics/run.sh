@@ -1,12 +1,14 @@
 #!/bin/bash
+# Usage: ./run.sh <games> <type> <type> [type] [type]
+# All games are played in a single JVM (one thread per core); per-game results
+# are appended to results/, and a summary is printed to stderr. The game is
+# compiled from ../src first, so that it matches the sources (Rodnelps.jar may
+# predate the options used here).
+set -e
+cd "$(dirname "$0")"
 one="$1"
 shift
-if [ -x "$(command -v parallel)" ]; then
-    seq "$one" | parallel --bar -n0 java -jar Rodnelps.jar "$@" >> results/"$*".txt
-else
-    i=1
-    while [ $i -le "$one" ]; do
-        java -jar Rodnelps.jar "$@" >> results/"$*".txt
-        i=$((i + 1))
-    done
-fi
+out="$(mktemp -d)"
+trap 'rm -rf "$out"' EXIT
+javac -d "$out" $(find ../src -name '*.java')
+java -cp "$out" controller.Main -n "$one" "$@" >> results/"$*".txt
@@ -0,0 +1,83 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (as written by -rf json).
+
+Usage: compare.py <baseline.json> <current.json> [threshold]
+
+Prints the relative change of every benchmark present in both files, and of
+its allocation per operation (gc.alloc.rate.norm, from -prof gc) if present.
+A change is a regression if it is worse than the baseline by more than
+threshold (default 0.05, i.e. 5%) plus the error of both scores. Exits with
+status 1 if there is any regression.
+"""
+
+import json
+import sys
+
+ALLOC = 'gc.alloc.rate.norm'
+
+
+def load(path):
+    with open(path) as f:
+        results = json.load(f)
+    table = {}
+    for r in results:
+        params = ','.join('%s=%s' % kv for kv in sorted(r.get('params', {}).items()))
+        key = r['benchmark'].rsplit('.', 2)[-2:]
+        key = '.'.join(key) + ('(' + params + ')' if params else '')
+        table[key] = r
+    return table
+
+
+def error(metric):
+    e = metric.get('scoreError')
+    return 0.0 if e in (None, 'NaN') else float(e)
+
+
+def worse(base, cur, higher_is_better, threshold):
+    """Return the relative change of cur from base, and whether it regressed."""
+    b = float(base['score'])
+    c = float(cur['score'])
+    change = (c - b) / b if b else 0.0
+    slack = threshold * abs(b) + error(base) + error(cur)
+    return change, (b - c > slack) if higher_is_better else (c - b > slack)
+
+
+def main(args):
+    if len(args) not in (2, 3):
+        sys.exit(__doc__)
+    threshold = float(args[2]) if len(args) == 3 else 0.05
+    base = load(args[0])
+    cur = load(args[1])
+    regressions = 0
+    print('%-60s %14s %-6s %9s %19s' % ('Benchmark', 'Score', 'Unit', 'Change', 'Alloc/op'))
+    for key in sorted(cur):
+        c = cur[key]
+        line = '%-60s %14.3f %-6s' % (key, c['primaryMetric']['score'],
+                                       c['primaryMetric']['scoreUnit'])
+        if key not in base:
+            print(line + '       new')
+            continue
+        b = base[key]
+        # Throughput is better when higher; times are better when lower
+        higher = c['mode'] == 'thrpt'
+        change, bad = worse(b['primaryMetric'], c['primaryMetric'], higher, threshold)
+        line += ' %+8.1f%%' % (100 * change)
+        flags = ['REGRESSION'] if bad else []
+        if ALLOC in c.get('secondaryMetrics', {}) and ALLOC in b.get('secondaryMetrics', {}):
+            ca = c['secondaryMetrics'][ALLOC]
+            achange, abad = worse(b['secondaryMetrics'][ALLOC], ca, False, threshold)
+            line += ' %9.0f B %+6.1f%%' % (ca['score'], 100 * achange)
+            if abad:
+                flags.append('ALLOC REGRESSION')
+        regressions += bool(flags)
+        print(line + (' <-- ' + ', '.join(flags) if flags else ''))
+    for key in sorted(set(base) - set(cur)):
+        print('%-60s        missing' % key)
+    if regressions:
+        print('%d regression(s) against the baseline.' % regressions)
+        return 1
+    return 0
+
+
+if __name__ == '__main__':
+    sys.exit(main(sys.argv[1:]))
@@ -0,0 +1,15 @@
+#!/bin/bash
+# Usage: JMH_CP=<classpath> ./run.sh [JMH options]
+# Compiles the game and the benchmarks in bench/src against JMH, then runs
+# them. JMH_CP must contain jmh-core and jmh-generator-annprocess (and their
+# dependencies, e.g. jopt-simple and commons-math3). Examples:
+#   ./run.sh ModelBenchmark
+#   ./run.sh ModelBenchmark.playerCanPurchase -prof gc
+set -e
+cd "$(dirname "$0")"
+: "${JMH_CP:?Set JMH_CP to the classpath of JMH}"
+rm -rf out
+mkdir out
+javac -cp "$JMH_CP" -processor org.openjdk.jmh.generators.BenchmarkProcessor \
+      -d out $(find ../src src -name '*.java')
+java -cp "out:$JMH_CP" org.openjdk.jmh.Main "$@"
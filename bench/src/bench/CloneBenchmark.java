@@ -0,0 +1,115 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.DefaultAI;
+import controller.UndoableController;
+import model.cards.ReadOnlyCardDeck;
+import model.cards.Tier;
+import model.nobles.ReadOnlyNobleDeck;
+import model.world.ReadOnlyPlayer;
+import view.User;
+
+/**
+ * The cost of copying the state of a game, from a position reached by an
+ * {@link UndoableController} (whose players and decks have recorded the whole
+ * game in their history). Copies do not carry the history over, so the cost
+ * should not grow with {@link #rounds}. Run with {@code -prof gc} to get the
+ * allocation per copy ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CloneBenchmark {
+
+    /** The number of players. */
+    @Param("4")
+    public int players;
+    /** The number of rounds played before the position. */
+    @Param({"4", "12", "24"})
+    public int rounds;
+    /** The seed of the position. */
+    @Param("1")
+    public long seed;
+
+    /** The position. */
+    private UndoableController position;
+    /** The players of {@link #position}. */
+    private ReadOnlyPlayer[] seats;
+    /** The decks of {@link #position}. */
+    private ReadOnlyCardDeck[] decks;
+    /** The nobles of {@link #position}. */
+    private ReadOnlyNobleDeck nobles;
+    /** The users of the copies of {@link #position}. */
+    private List<User> users;
+    /** The random number generator of the copies of {@link #position}. */
+    private SplittableRandom random;
+
+    /** Set up the position. */
+    @Setup
+    public void setup() {
+        this.position = Positions.midGame(this.players, this.rounds, this.seed);
+        this.seats = this.position.players().toArray(new ReadOnlyPlayer[0]);
+        this.decks = new ReadOnlyCardDeck[Tier.values().length];
+        for (Tier t : Tier.values()) {
+            this.decks[t.ordinal()] = this.position.deck(t);
+        }
+        this.nobles = this.position.nobles();
+        this.users = new ArrayList<>();
+        for (int i = 0; i < this.players; ++i) {
+            this.users.add(new DefaultAI(false, "DefaultAI" + i));
+        }
+        this.random = new SplittableRandom(this.seed);
+    }
+
+    /** {@link ReadOnlyPlayer#clone()} of every player. */
+    @Benchmark
+    public ReadOnlyPlayer clonePlayers() {
+        ReadOnlyPlayer last = null;
+        for (ReadOnlyPlayer p : this.seats) {
+            last = p.clone();
+        }
+        return last;
+    }
+
+    /** {@link ReadOnlyCardDeck#clone()} of every deck. */
+    @Benchmark
+    public ReadOnlyCardDeck cloneDecks() {
+        ReadOnlyCardDeck last = null;
+        for (ReadOnlyCardDeck d : this.decks) {
+            last = d.clone();
+        }
+        return last;
+    }
+
+    /** {@link ReadOnlyNobleDeck#clone()}. */
+    @Benchmark
+    public ReadOnlyNobleDeck cloneNobles() {
+        return this.nobles.clone();
+    }
+
+    /** The copy constructor of {@link UndoableController}, as MCTS uses it. */
+    @Benchmark
+    public UndoableController copyController() {
+        return new UndoableController(this.position, this.users, this.random);
+    }
+
+}
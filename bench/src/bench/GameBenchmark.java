@@ -0,0 +1,71 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.DefaultAI;
+import ai.WillAI;
+import controller.Controller;
+import view.User;
+
+/**
+ * End-to-end throughput of whole games (in games per second) between
+ * identical AIs. Each invocation plays a new game from the next seed, so the
+ * whole rollout path (move generation, the model and its undo history) is
+ * exercised. Run with {@code -prof gc} to get the allocation per game
+ * ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    /** The number of points needed to win. */
+    private static final int GOAL = 15;
+
+    /** The AI of every player. */
+    @Param({"DefaultAI", "WillAI"})
+    public String ai;
+    /** The number of players. */
+    @Param({"2", "3", "4"})
+    public int players;
+
+    /** The seed of the next game. */
+    private long seed = 0;
+
+    /** Play a whole game. */
+    @Benchmark
+    public int game() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < this.players; ++i) {
+            switch (this.ai) {
+                case "DefaultAI":
+                    users.add(new DefaultAI(false, "DefaultAI" + i));
+                    break;
+                case "WillAI":
+                    users.add(new WillAI(false, "WillAI" + i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown AI: " + this.ai);
+            }
+        }
+        Controller controller = new Controller(GOAL, users, this.seed++);
+        return controller.play().size() + controller.rounds();
+    }
+
+}
@@ -0,0 +1,317 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.Controller;
+import controller.UndoableController;
+import model.cards.Card;
+import model.cards.CardDeck;
+import model.cards.CostTable;
+import model.cards.Tier;
+import model.gems.PackedGems;
+import model.gems.ReadOnlyGemSet;
+import model.gems.ReadOnlyTokenSet;
+import model.gems.TokenSet;
+import model.nobles.ReadOnlyNobleDeck;
+import model.world.ReadOnlyPlayer;
+import util.Marker;
+
+/**
+ * Micro-benchmarks of the model primitives on the hot path of the AIs, over a
+ * corpus of mid-game {@link Positions}. Each invocation works on the next
+ * sample of the corpus (round-robin), so that branch prediction and caches see
+ * a realistic mix of inputs rather than a single one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+    /** The number of positions in the corpus. */
+    @Param("64")
+    public int positions;
+    /** The seed of the corpus. */
+    @Param("1")
+    public long seed;
+
+    /** The players of each (player, display card) sample. */
+    private ReadOnlyPlayer[] players;
+    /** The cards of each (player, display card) sample. */
+    private Card[] cards;
+    /** The costs of the cards of each (player, display card) sample. */
+    private ReadOnlyGemSet[] costs;
+    /** The gems from cards of each (player, display card) sample. */
+    private ReadOnlyGemSet[] cardGems;
+    /** The tokens of each (player, display card) sample. */
+    private ReadOnlyTokenSet[] tokens;
+
+    /** The players of each affordable (player, card) sample. */
+    private ReadOnlyPlayer[] buyers;
+    /** The cards of each affordable (player, card) sample. */
+    private Card[] bought;
+    /** The payments of each affordable (player, card) sample. */
+    private ReadOnlyTokenSet[] payments;
+    /** A mutable copy of the tokens of each affordable sample. */
+    private TokenSet[] wallets;
+
+    /** A mutable copy of each (nonempty) deck of each position. */
+    private CardDeck[] decks;
+    /** A card on display in each of {@link #decks}. */
+    private Card[] displayed;
+
+    /** The nobles of each (position, player) sample. */
+    private ReadOnlyNobleDeck[] nobles;
+    /** The gems from cards of each (position, player) sample. */
+    private ReadOnlyGemSet[] nobleGems;
+    /** The packed gems from cards of each (position, player) sample. */
+    private long[] packedNobleGems;
+
+    /** The positions of the corpus. */
+    private Controller[] controllers;
+
+    /** The next (player, display card) sample. */
+    private int pairIdx = 0;
+    /** The next affordable sample. */
+    private int buyIdx = 0;
+    /** The next deck sample. */
+    private int deckIdx = 0;
+    /** The next noble sample. */
+    private int nobleIdx = 0;
+    /** The next position. */
+    private int positionIdx = 0;
+    /** The players of the (position, player) samples. */
+    private ReadOnlyPlayer[] viewers;
+    /** The positions of the (position, player) samples. */
+    private Controller[] views;
+    /** The index of the next (position, player) sample. */
+    private int viewIdx = 0;
+    /** The table of the cards on display of a sample. */
+    private final CostTable table = new CostTable(Controller.VISIBLE_CARDS);
+    /** The payments of the cards of {@link #table}. */
+    private final long[] tablePayments = new long[Controller.VISIBLE_CARDS];
+
+    /** Build the samples from the corpus. */
+    @Setup
+    public void setup() {
+        List<UndoableController> corpus = Positions.midGame(this.positions, this.seed);
+        List<ReadOnlyPlayer> players = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+        List<ReadOnlyPlayer> buyers = new ArrayList<>();
+        List<Card> bought = new ArrayList<>();
+        List<ReadOnlyTokenSet> payments = new ArrayList<>();
+        List<CardDeck> decks = new ArrayList<>();
+        List<Card> displayed = new ArrayList<>();
+        List<ReadOnlyNobleDeck> nobles = new ArrayList<>();
+        List<ReadOnlyGemSet> nobleGems = new ArrayList<>();
+        List<ReadOnlyPlayer> viewers = new ArrayList<>();
+        List<Controller> views = new ArrayList<>();
+        for (UndoableController c : corpus) {
+            for (ReadOnlyPlayer p : c.players()) {
+                viewers.add(p);
+                views.add(c);
+                for (Tier t : Tier.values()) {
+                    for (Card card : c.deck(t).display()) {
+                        players.add(p);
+                        cards.add(card);
+                        ReadOnlyTokenSet payment = Positions.payment(p, card);
+                        if (payment != null) {
+                            buyers.add(p);
+                            bought.add(card);
+                            payments.add(payment);
+                        }
+                    }
+                }
+                nobles.add(c.nobles());
+                nobleGems.add(p.cardGems());
+            }
+            for (Tier t : Tier.values()) {
+                // The decks of a controller are CardDecks
+                CardDeck deck = (CardDeck)c.deck(t).clone();
+                if (!deck.isDisplayEmpty()) {
+                    decks.add(deck);
+                    displayed.add(deck.display().iterator().next());
+                }
+            }
+        }
+        this.players = players.toArray(new ReadOnlyPlayer[0]);
+        this.cards = cards.toArray(new Card[0]);
+        this.costs = new ReadOnlyGemSet[this.players.length];
+        this.cardGems = new ReadOnlyGemSet[this.players.length];
+        this.tokens = new ReadOnlyTokenSet[this.players.length];
+        for (int i = 0; i < this.players.length; ++i) {
+            this.costs[i] = this.cards[i].cost();
+            this.cardGems[i] = this.players[i].cardGems();
+            this.tokens[i] = this.players[i].tokens();
+        }
+        this.buyers = buyers.toArray(new ReadOnlyPlayer[0]);
+        this.bought = bought.toArray(new Card[0]);
+        this.payments = payments.toArray(new ReadOnlyTokenSet[0]);
+        this.wallets = new TokenSet[this.buyers.length];
+        for (int i = 0; i < this.buyers.length; ++i) {
+            this.wallets[i] = new TokenSet(this.buyers[i].tokens());
+        }
+        this.decks = decks.toArray(new CardDeck[0]);
+        this.displayed = displayed.toArray(new Card[0]);
+        this.nobles = nobles.toArray(new ReadOnlyNobleDeck[0]);
+        this.nobleGems = nobleGems.toArray(new ReadOnlyGemSet[0]);
+        this.packedNobleGems = new long[this.nobleGems.length];
+        for (int i = 0; i < this.nobleGems.length; ++i) {
+            this.packedNobleGems[i] = PackedGems.pack(this.nobleGems[i]);
+        }
+        this.controllers = corpus.toArray(new Controller[0]);
+        this.viewers = viewers.toArray(new ReadOnlyPlayer[0]);
+        this.views = views.toArray(new Controller[0]);
+    }
+
+    /**
+     * @return The index of the next (player, display card) sample.
+     */
+    private int nextPair() {
+        int i = this.pairIdx;
+        this.pairIdx = i + 1 == this.cards.length ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * @return The index of the next affordable sample.
+     */
+    private int nextBuy() {
+        int i = this.buyIdx;
+        this.buyIdx = i + 1 == this.bought.length ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * @return The index of the next (position, player) sample.
+     */
+    private int nextView() {
+        int i = this.viewIdx;
+        this.viewIdx = i + 1 == this.viewers.length ? 0 : i + 1;
+        return i;
+    }
+
+    /** {@link ReadOnlyGemSet#dominatedBy(ReadOnlyGemSet)}. */
+    @Benchmark
+    public boolean gemSetDominatedByGems() {
+        int i = nextPair();
+        return this.costs[i].dominatedBy(this.cardGems[i]);
+    }
+
+    /** {@link ReadOnlyGemSet#dominatedBy(ReadOnlyTokenSet)}. */
+    @Benchmark
+    public boolean gemSetDominatedByTokens() {
+        int i = nextPair();
+        return this.costs[i].dominatedBy(this.tokens[i]);
+    }
+
+    /** {@link TokenSet#take(ReadOnlyTokenSet)} then give it back. */
+    @Benchmark
+    public boolean tokenSetTakeGive() {
+        int i = nextBuy();
+        TokenSet wallet = this.wallets[i];
+        return wallet.take(this.payments[i]) & wallet.give(this.payments[i]);
+    }
+
+    /** {@link ReadOnlyPlayer#canPurchase(Card)}. */
+    @Benchmark
+    public boolean playerCanPurchase() {
+        int i = nextPair();
+        return this.players[i].canPurchase(this.cards[i]);
+    }
+
+    /** {@link ReadOnlyPlayer#payment(Card)}. */
+    @Benchmark
+    public long playerPayment() {
+        int i = nextPair();
+        return this.players[i].payment(this.cards[i]);
+    }
+
+    /** {@link ReadOnlyPlayer#canPurchase(Card)} of every card on display. */
+    @Benchmark
+    public int displayCanPurchase() {
+        int i = nextView();
+        int count = 0;
+        for (Tier t : Tier.values()) {
+            for (Card card : this.views[i].deck(t).display()) {
+                if (this.viewers[i].canPurchase(card)) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** {@link ReadOnlyPlayer#affordable} of a table of the cards on display. */
+    @Benchmark
+    public int displayAffordable() {
+        int i = nextView();
+        this.table.clear();
+        for (Tier t : Tier.values()) {
+            this.views[i].deck(t).addDisplay(this.table);
+        }
+        return Integer.bitCount(this.viewers[i].affordable(this.table,
+                this.tablePayments));
+    }
+
+    /** {@link ReadOnlyPlayer#canPurchase(Card, ReadOnlyTokenSet)}. */
+    @Benchmark
+    public boolean playerCanPurchaseWith() {
+        int i = nextBuy();
+        return this.buyers[i].canPurchase(this.bought[i], this.payments[i]);
+    }
+
+    /** {@link CardDeck#take(Card)} between a mark and its undo. */
+    @Benchmark
+    public boolean cardDeckTakeUndo() {
+        int i = this.deckIdx;
+        this.deckIdx = i + 1 == this.decks.length ? 0 : i + 1;
+        CardDeck deck = this.decks[i];
+        Marker mark = deck.mark();
+        return deck.take(this.displayed[i]) & mark.undo();
+    }
+
+    /** {@link ReadOnlyNobleDeck#satisfied(ReadOnlyGemSet)}. */
+    @Benchmark
+    public int nobleDeckSatisfied() {
+        int i = this.nobleIdx;
+        this.nobleIdx = i + 1 == this.nobles.length ? 0 : i + 1;
+        return this.nobles[i].satisfied(this.nobleGems[i]).size();
+    }
+
+    /** {@link ReadOnlyNobleDeck#satisfiedMask(long)}. */
+    @Benchmark
+    public int nobleDeckSatisfiedMask() {
+        int i = this.nobleIdx;
+        this.nobleIdx = i + 1 == this.nobles.length ? 0 : i + 1;
+        return this.nobles[i].satisfiedMask(this.packedNobleGems[i]);
+    }
+
+    /**
+     * {@link Controller#gameOver()}, which checks for the final round and for
+     * a deadlock since every position is at the start of a round.
+     */
+    @Benchmark
+    public boolean controllerGameOver() {
+        int i = this.positionIdx;
+        this.positionIdx = i + 1 == this.controllers.length ? 0 : i + 1;
+        return this.controllers[i].gameOver();
+    }
+
+}
@@ -0,0 +1,105 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ai.DefaultAI;
+import ai.WillAI;
+import controller.UndoableController;
+import model.cards.Card;
+import model.gems.Color;
+import model.gems.ReadOnlyTokenSet;
+import model.gems.TokenColor;
+import model.gems.TokenSet;
+import model.world.ReadOnlyPlayer;
+import view.User;
+
+/**
+ * A reproducible corpus of realistic mid-game positions, obtained by playing
+ * seeded games between {@link DefaultAI}s and {@link WillAI}s for a few
+ * rounds.
+ */
+public final class Positions {
+
+    /** The number of points needed to win. */
+    private static final int GOAL = 15;
+    /** The fewest rounds played before a position is taken. */
+    private static final int MIN_ROUNDS = 5;
+    /** The most rounds played before a position is taken. */
+    private static final int MAX_ROUNDS = 15;
+
+    /** This class is not to be instantiated. */
+    private Positions() {}
+
+    /**
+     * Create {@code count} mid-game positions, cycling through 2, 3 and 4
+     * players. Every position is at the start of a round (i.e. the first
+     * player is to make a normal move), unless its game ended earlier.
+     *
+     * @param count The number of positions.
+     * @param seed The seed of the corpus.
+     * @return The positions, as the controllers of the games.
+     */
+    public static List<UndoableController> midGame(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<UndoableController> positions = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            int rounds = MIN_ROUNDS + random.nextInt(MAX_ROUNDS - MIN_ROUNDS + 1);
+            positions.add(midGame(2 + i % 3, rounds, random.nextLong()));
+        }
+        return positions;
+    }
+
+    /**
+     * Create a mid-game position by playing a seeded game between
+     * {@link DefaultAI}s and {@link WillAI}s (alternately) for {@code rounds}
+     * rounds. The position is at the start of a round (i.e. the first player
+     * is to make a normal move), unless the game ended earlier.
+     *
+     * @param players The number of players.
+     * @param rounds The number of rounds to play.
+     * @param seed The seed of the game.
+     * @return The position, as the controller of the game.
+     */
+    public static UndoableController midGame(int players, int rounds, long seed) {
+        List<User> users = new ArrayList<>();
+        for (int j = 0; j < players; ++j) {
+            users.add(j % 2 == 0 ? new DefaultAI(false, "DefaultAI" + j)
+                                 : new WillAI(false, "WillAI" + j));
+        }
+        UndoableController c = new UndoableController(GOAL, users, seed);
+        for (int k = 0; k < players * rounds && c.playTurn(); ++k) {/**/}
+        return c;
+    }
+
+    /**
+     * Pay for {@code card} the way {@link DefaultAI} does: with as little
+     * tokens as possible, and as little gold tokens as possible.
+     *
+     * @param player The purchasing player.
+     * @param card The {@link Card} to pay for.
+     * @return The payment, or {@code null} if {@code player} cannot purchase
+     *             {@code card}.
+     */
+    public static ReadOnlyTokenSet payment(ReadOnlyPlayer player, Card card) {
+        if (!player.canPurchase(card)) {
+            return null;
+        }
+        TokenSet payment = new TokenSet();
+        for (Color c : Color.values()) {
+            int rem = card.cost(c) - player.cardGems(c);
+            if (rem > 0) {
+                int tokens = player.tokens(c.toTokenColor());
+                if (tokens >= rem) {
+                    payment.give(c.toTokenColor(), rem);
+                } else {
+                    payment.give(c.toTokenColor(), tokens);
+                    payment.give(TokenColor.GOLD, rem - tokens);
+                }
+            }
+        }
+        return payment;
+    }
+
+}
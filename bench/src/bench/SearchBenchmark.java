@@ -0,0 +1,114 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.DefaultAI;
+import ai.MCTSv0AI;
+import ai.MCTSv1AI;
+import ai.MCTSv2AI;
+import ai.MCTSv3AI;
+import ai.MCTSv4AI;
+import ai.MCTSv5AI;
+import ai.MCTSv6AI;
+import controller.UndoableController;
+import view.User;
+
+/**
+ * Search throughput of the MCTS AIs (in iterations per second) from a fixed
+ * mid-game position, where the AI is the first player to move. The search is
+ * restarted at every measurement iteration, so the tree does not grow without
+ * bound. Run with {@code -prof gc} to get the allocation per iteration
+ * ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    /** The AI searching. */
+    @Param({"MCTSv0AI", "MCTSv1AI", "MCTSv2AI", "MCTSv3AI", "MCTSv4AI", "MCTSv5AI",
+            "MCTSv6AI"})
+    public String ai;
+    /** The number of players. */
+    @Param({"2", "4"})
+    public int players;
+    /** The number of rounds played before the position. */
+    @Param("8")
+    public int rounds;
+    /** The seed of the position (and of the search). */
+    @Param("1")
+    public long seed;
+
+    /** The searching AI. */
+    private MCTSv0AI searcher;
+
+    /** Set up the position with {@link #searcher} as the first player. */
+    @Setup(Level.Trial)
+    public void setup() {
+        UndoableController position = Positions.midGame(this.players,
+                this.rounds, this.seed);
+        switch (this.ai) {
+            case "MCTSv0AI":
+                this.searcher = new MCTSv0AI(false, "MCTSv0AI", 0);
+                break;
+            case "MCTSv1AI":
+                this.searcher = new MCTSv1AI(false, "MCTSv1AI", 0);
+                break;
+            case "MCTSv2AI":
+                this.searcher = new MCTSv2AI(false, "MCTSv2AI", 0);
+                break;
+            case "MCTSv3AI":
+                this.searcher = new MCTSv3AI(false, "MCTSv3AI", 0);
+                break;
+            case "MCTSv4AI":
+                this.searcher = new MCTSv4AI(false, "MCTSv4AI", 0);
+                break;
+            case "MCTSv5AI":
+                this.searcher = new MCTSv5AI(false, "MCTSv5AI", 0);
+                break;
+            case "MCTSv6AI":
+                this.searcher = new MCTSv6AI(false, "MCTSv6AI", 0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown AI: " + this.ai);
+        }
+        List<User> users = new ArrayList<>();
+        users.add(this.searcher);
+        for (int i = 1; i < this.players; ++i) {
+            users.add(new DefaultAI(false, "DefaultAI" + i));
+        }
+        new UndoableController(position, users, new SplittableRandom(this.seed));
+    }
+
+    /** Restart the search from the position. */
+    @Setup(Level.Iteration)
+    public void newSearch() {
+        this.searcher.newSearch();
+    }
+
+    /** Run one iteration of the search. */
+    @Benchmark
+    public void iterate() {
+        this.searcher.iterate();
+    }
+
+}
@@ -0,0 +1,25 @@
+#!/bin/bash
+# Usage: JMH_CP=<classpath> ./throughput.sh [--record] [JMH options]
+# Runs the end-to-end benchmarks (GameBenchmark and SearchBenchmark) with the
+# GC profiler and compares the results with the committed baseline.json,
+# reporting any regression (see compare.py). With --record, the results
+# replace baseline.json instead; commit it to move the baseline. Scores only
+# compare on the same machine, so record a baseline of your own (from the
+# commit to compare against) before measuring on another one.
+set -e
+cd "$(dirname "$0")"
+record=false
+if [ "$1" = "--record" ]; then
+    record=true
+    shift
+elif [ ! -f baseline.json ]; then
+    echo "error: baseline.json is missing; run with --record to create it" >&2
+    exit 2
+fi
+./run.sh 'GameBenchmark|SearchBenchmark' -prof gc -rf json -rff "$PWD/results.json" "$@"
+if $record; then
+    cp results.json baseline.json
+    echo "Recorded baseline.json"
+else
+    ./compare.py baseline.json results.json
+fi
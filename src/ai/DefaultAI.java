@@ -3,14 +3,16 @@ package ai;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import controller.Controller;
 import model.cards.Card;
+import model.cards.CostTable;
 import model.cards.ReadOnlyCardDeck;
 import model.cards.Tier;
 import model.gems.Color;
+import model.gems.PackedGems;
 import model.gems.ReadOnlyTokenSet;
 import model.gems.TokenColor;
 import model.gems.TokenSet;
@@ -30,6 +32,10 @@ public class DefaultAI implements User {
     protected Controller controller = null;
     /** The player of the user in the game. */
     protected ReadOnlyPlayer player = null;
+    /** The source of randomness of the user, split from the game's. */
+    protected SplittableRandom random = null;
+    /** A scratch table of the {@link Card}s the user can buy from. */
+    protected final CostTable visible = new CostTable(Controller.VISIBLE_CARDS);
 
     /**
      * Create a user with the specified name.
@@ -68,6 +74,7 @@ public class DefaultAI implements User {
     public void setController(Controller controller) {
         this.controller = controller;
         this.player = controller.player(this);
+        this.random = controller.splitRandom();
     }
 
     @Override
@@ -80,18 +87,10 @@ public class DefaultAI implements User {
         };
 
         // Purchase
-        for (ReadOnlyCardDeck d : decks) {
-            for (Card card : d.display()) {
-                if (this.player.canPurchase(card)) {
-                    return purchase(card);
-                }
-            }
-        }
-        for (Card card : this.player.reserved()) {
-            Card trueCard = this.controller.unhide(this, card);
-            if (this.player.canPurchase(trueCard)) {
-                return purchase(trueCard);
-            }
+        int affordable = affordable(decks);
+        if (affordable != 0) {
+            int i = Integer.numberOfTrailingZeros(affordable);
+            return purchase(this.visible.card(i));
         }
 
         // Gather color info
@@ -169,6 +168,26 @@ public class DefaultAI implements User {
         return Move.reserve(card);
     }
 
+    /**
+     * Fill {@link #visible} with the {@link Card}s on display in {@code decks}
+     * (in order), followed by the (unhidden) {@link Card}s in reserve, and
+     * check which of them the player can afford.
+     *
+     * @param decks The decks whose display to consider.
+     * @return The mask of the indices of the {@link Card}s of {@link #visible}
+     *             that the player can afford.
+     */
+    protected int affordable(ReadOnlyCardDeck... decks) {
+        this.visible.clear();
+        for (ReadOnlyCardDeck d : decks) {
+            d.addDisplay(this.visible);
+        }
+        for (Card card : this.player.reserved()) {
+            this.visible.add(this.controller.unhide(this, card));
+        }
+        return this.player.affordable(this.visible, null);
+    }
+
     /**
      * Purchase {@code card} with as little tokens as possible, and as little
      * gold tokens as possible.
@@ -180,22 +199,11 @@ public class DefaultAI implements User {
      *             purchase {@code card}.
      */
     protected Move purchase(Card card) {
-        if (!this.player.canPurchase(card)) {
+        long packed = this.player.payment(card);
+        if (packed < 0) {
             return null;
         }
-        TokenSet payment = new TokenSet();
-        for (Color c : Color.values()) {
-            int rem = card.cost(c) - this.player.cardGems(c);
-            if (rem > 0) {
-                int tokens = this.player.tokens(c.toTokenColor());
-                if (tokens >= rem) {
-                    payment.give(c.toTokenColor(), rem);
-                } else {
-                    payment.give(c.toTokenColor(), tokens);
-                    payment.give(TokenColor.GOLD, rem - tokens);
-                }
-            }
-        }
+        ReadOnlyTokenSet payment = PackedGems.toTokenSet(packed);
         println(this.name + " purchases the following card:");
         print(card);
         println("Using the following tokens:");
@@ -211,11 +219,10 @@ public class DefaultAI implements User {
 
     @Override
     public ReadOnlyTokenSet discard(int count) {
-        Random r = new Random();
         TokenColor[] colors = TokenColor.values();
         TokenSet tokens = new TokenSet();
         while (tokens.size() < count) {
-            TokenColor c = colors[r.nextInt(colors.length)];
+            TokenColor c = colors[this.random.nextInt(colors.length)];
             if (tokens.get(c) < this.player.tokens(c)) {
                 tokens.give(c, 1);
             }
@@ -1,27 +1,26 @@
 package ai;
 
 import java.util.ArrayList;
-import java.util.EnumSet;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 
 import controller.Controller;
 import controller.UndoableController;
 import model.cards.Card;
+import model.cards.CostTable;
 import model.cards.ReadOnlyCardDeck;
+import model.cards.Tier;
 import model.gems.Color;
 import model.gems.ReadOnlyTokenSet;
-import model.gems.TokenColor;
-import model.gems.TokenSet;
 import model.nobles.Noble;
 import model.world.ReadOnlyPlayer;
 import util.Marker;
 import util.Tree;
 import view.Move;
+import view.MoveCode;
 import view.User;
 
 /**
@@ -29,18 +28,40 @@ import view.User;
  */
 public class MCTSv0AI extends DefaultAI {
 
-    protected static final Random RANDOM = new Random();
-    private static final Map<Set<Color>, Set<Move>> legalTakes = new HashMap<>();
+    // The codes of the legal TAKE_THREE moves, by mask of the colors left
+    // (never mutated after class initialization, so safe to share)
+    private static final int[][] legalTakes = new int[1 << Color.values().length][];
+    // The largest number of legal moves of a position
+    private static final int MAX_MOVES = 64;
+
+    // Indices of the stages of an iteration in times
+    private static final int SELECTION = 0;
+    private static final int EXPANSION = 1;
+    private static final int SIMULATION = 2;
+    private static final int BACKPROPAGATION = 3;
+    private static final int UNDO = 4;
+
+    static {
+        for (int colorsLeft = 0; colorsLeft < legalTakes.length; ++colorsLeft) {
+            legalTakes[colorsLeft] = getLegalTakes(colorsLeft);
+        }
+    }
 
     private final long timeout_nanos;
     private final List<DummyAI> users = new ArrayList<>();
-    private final Map<ReadOnlyPlayer, DummyAI> owner = new HashMap<>();
     private final Map<Tree<Data>, Marker> markers = new HashMap<>();
 
-    private UndoableController simulator = null;
-    private Tree<Data> root = null;
+    protected UndoableController simulator = null;
+    protected Tree<Data> root = null;
     protected Tree<Data> current = null;
-    private boolean stop = false;
+
+    // Statistics of the current search
+    private long iterations = 0;
+    private long rollouts = 0;
+    private long nodes = 0;
+    private int maxDepth = 0;
+    private long totalDepth = 0;
+    private final long[] times = new long[5];
 
     /**
      * Create a user with the specified name.
@@ -65,58 +86,192 @@ public class MCTSv0AI extends DefaultAI {
 
     @Override
     public Move move() {
-        this.simulator = new UndoableController(this.controller, this.users);
-        for (DummyAI user : this.users) {
-            this.owner.put(this.simulator.player(user), user);
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        newSearch();
+        search(this.timeout_nanos);
+        event.end();
+        SearchStats stats = searchStats();
+        if (event.shouldCommit()) {
+            event.set(this.name, stats);
+            event.commit();
         }
-        this.root = new Tree<>(Data.NULL);
+        println(stats);
+        return bestMove();
+    }
+
+    /**
+     * Start a new search from the current position of the game, discarding
+     * any previous search tree.
+     */
+    public void newSearch() {
+        this.simulator = new UndoableController(this.controller, this.users,
+                this.random.split());
+        // Its moves all come from getLegalMoves (see advance)
+        this.simulator.setTrusted(true);
+        // Not Data.NULL, which is shared: the root counts its own visits
+        this.root = new Tree<>(new Data());
         this.current = this.root;
-        this.stop = false;
+        this.iterations = 0;
+        this.rollouts = 0;
+        this.nodes = 0;
+        this.maxDepth = 0;
+        this.totalDepth = 0;
+        Arrays.fill(this.times, 0);
+    }
+
+    /**
+     * Run iterations of the current search until {@code budget} has elapsed
+     * (but at least one).
+     *
+     * @param budget The time to search for (in nanoseconds).
+     */
+    protected void search(long budget) {
         long startTime = System.nanoTime();
-        while (!this.stop) {
-            mark();
-            // Selection
-            while (!this.current.isLeaf()) {
-                advance(getBestChild());
-            }
-            // Expansion
-            DummyAI user = this.owner.get(this.simulator.player());
-            Set<Move> moves = getMovesToConsider(user);
-            for (Move move : moves) {
-                this.current.addLeaf(new Data(user, move));
-            }
-            // Deviation: run every child at least once
-            for (Tree<Data> child : this.current.children()) {
-                Tree<Data> marker = mark();
-                // Simulation
-                advance(child);
-                Set<User> winners = simulate();
-                // Backpropagation
-                for (Tree<Data> n = this.current; n != this.root; n = n.parent()) {
-                    Data data = n.data();
-                    if (winners.contains(data.user)) {
-                        ++data.wins;
-                    }
-                    ++data.sims;
-                }
-                ++this.root.data().sims;
-                undo(marker);
-            }
-            undo(this.root);
-            if (System.nanoTime() - startTime >= this.timeout_nanos) {
-                this.stop = true;
+        do {
+            iterate();
+        } while (System.nanoTime() - startTime < budget);
+    }
+
+    /**
+     * @return The {@link SearchStats} of the current search (or of the last
+     *             one, if no search is in progress).
+     */
+    public SearchStats searchStats() {
+        List<Move> rootMoves = new ArrayList<>();
+        List<Tree<Data>> children = this.root == null
+                ? List.of()
+                : this.root.children();
+        int[] rootVisits = new int[children.size()];
+        for (int i = 0; i < rootVisits.length; ++i) {
+            Data data = children.get(i).data();
+            rootMoves.add(this.controller.decode(data.move));
+            rootVisits[i] = data.sims;
+        }
+        return new SearchStats(this.iterations, this.rollouts, this.nodes,
+                this.maxDepth, this.totalDepth, this.times, rootMoves,
+                rootVisits);
+    }
+
+    /**
+     * Run a single iteration (selection, expansion, simulation and
+     * backpropagation) of the current search.
+     */
+    public void iterate() {
+        long t0 = System.nanoTime();
+        mark();
+        long t1 = System.nanoTime();
+        // Selection
+        int depth = 0;
+        while (!shouldExpand()) {
+            advance(getBestChild());
+            ++depth;
+        }
+        long t2 = System.nanoTime();
+        // Expansion
+        List<Tree<Data>> leaves = expand();
+        long t3 = System.nanoTime();
+        this.times[UNDO] += t1 - t0;
+        this.times[SELECTION] += t2 - t1;
+        this.times[EXPANSION] += t3 - t2;
+        for (Tree<Data> leaf : leaves) {
+            long u0 = System.nanoTime();
+            Tree<Data> marker = mark();
+            long u1 = System.nanoTime();
+            // Simulation
+            if (leaf != this.current) {
+                advance(leaf);
             }
+            double[] rewards = simulate();
+            long u2 = System.nanoTime();
+            // Backpropagation
+            backpropagate(rewards);
+            long u3 = System.nanoTime();
+            undo(marker);
+            this.times[UNDO] += (u1 - u0) + (System.nanoTime() - u3);
+            this.times[SIMULATION] += u2 - u1;
+            this.times[BACKPROPAGATION] += u3 - u2;
+            ++this.rollouts;
+        }
+        long t4 = System.nanoTime();
+        undo(this.root);
+        this.times[UNDO] += System.nanoTime() - t4;
+        ++this.iterations;
+        this.totalDepth += depth;
+        this.maxDepth = Math.max(this.maxDepth, depth);
+    }
+
+    /**
+     * @return Whether the selection stops at {@link #current} to expand it;
+     *             by default, iff it is a leaf.
+     */
+    protected boolean shouldExpand() {
+        return this.current.isLeaf();
+    }
+
+    /**
+     * Expand {@link #current}, which the selection stopped at. By default,
+     * every move to consider is added as a child, and every child is run
+     * (deviation from the usual single rollout).
+     *
+     * @return The nodes to run a rollout from: children of {@link #current}
+     *             or {@link #current} itself.
+     */
+    protected List<Tree<Data>> expand() {
+        for (int move : getMovesToConsider(currentUser())) {
+            addChild(move);
         }
+        return this.current.children();
+    }
+
+    /**
+     * @return The {@link User} to move at {@link #current}.
+     */
+    protected User currentUser() {
+        return this.users.get(this.simulator.currentSeat());
+    }
+
+    /**
+     * Add a child to {@link #current}, for the user to move.
+     *
+     * @param move The code of the move of the child.
+     * @return The child.
+     */
+    protected Tree<Data> addChild(int move) {
+        int seat = this.simulator.currentSeat();
+        Tree<Data> child = new Tree<>(new Data(seat, this.users.get(seat), move));
+        this.current.addChild(child);
+        ++this.nodes;
+        return child;
+    }
+
+    /**
+     * @return The child of the root whose move is played, or {@code null} if
+     *             there is none; by default, the one with the best win rate.
+     */
+    protected Tree<Data> getBestRootChild() {
         double maxWinRate = -1;
-        Move best = null;
+        Tree<Data> best = null;
         for (Tree<Data> child : this.root.children()) {
             double winRate = child.data().winRate();
             if (winRate > maxWinRate) {
                 maxWinRate = winRate;
-                best = child.data().move;
+                best = child;
             }
         }
-        if (best != null) {
+        return best;
+    }
+
+    /**
+     * @return The best {@link Move} found by the current search, or the move of
+     *             {@link DefaultAI} if there is none.
+     */
+    private Move bestMove() {
+        Tree<Data> bestChild = getBestRootChild();
+        if (bestChild != null) {
+            int bestCode = bestChild.data().move;
+            // A hidden card is decoded as the top card of the actual deck
+            Move best = this.controller.decode(bestCode);
             switch (best.type()) {
                 case TAKE_THREE:
                     print(this.name + " takes 3 tokens:");
@@ -129,12 +284,6 @@ public class MCTSv0AI extends DefaultAI {
                     println(this.name + " takes two of color " + best.color() + "\n");
                     break;
                 case RESERVE:
-                    // If best.card() is from the top of a deck,
-                    // replace it with the actual card (before shuffling)
-                    if (best.card().isHidden()) {
-                        best = Move.reserve(this.controller
-                                .deck(best.card().tier()).peek());
-                    }
                     println(this.name + " reserves the following card:");
                     println(best.card());
                     break;
@@ -172,10 +321,10 @@ public class MCTSv0AI extends DefaultAI {
         }
         this.current = next;
         Data data = this.current.data();
-        for (int i = 0; i < 3; ++i) {
-            data.user.next = data;
-            this.simulator.next();
-        }
+        // The user replays (or records) the other decisions of its turn
+        data.user.next = data;
+        this.simulator.playTurn(data.move);
+        data.user.next = Data.NULL;
         return true;
     }
 
@@ -183,153 +332,216 @@ public class MCTSv0AI extends DefaultAI {
         List<Tree<Data>> children = this.current.children();
         return children.isEmpty()
                 ? null
-                : children.get(RANDOM.nextInt(children.size()));
+                : children.get(this.random.nextInt(children.size()));
+    }
+
+    /**
+     * Record the result of a rollout from {@link #current} in the nodes from
+     * {@link #current} up to the root. Each node accumulates the reward of
+     * every seat, and its value is the mean reward of the seat that moved
+     * (so that each seat maximizes its own reward, as in max^n).
+     *
+     * @param rewards The reward of each seat (see {@link #rewards}).
+     */
+    protected void backpropagate(double[] rewards) {
+        for (Tree<Data> n = this.current; n != this.root; n = n.parent()) {
+            n.data().add(rewards);
+        }
+        ++this.root.data().sims;
+    }
+
+    /**
+     * @param game A finished rollout.
+     * @return The reward of each seat, between 0 and 1; by default, 1 for
+     *             the winners and 0 for the others.
+     */
+    protected double[] rewards(Controller game) {
+        double[] rewards = new double[this.users.size()];
+        int winners = game.winners();
+        for (int i = 0; i < rewards.length; ++i) {
+            if ((winners & (1 << i)) != 0) {
+                rewards[i] = 1;
+            }
+        }
+        return rewards;
+    }
+
+    /**
+     * @param seat The seat of the user.
+     * @return A new user playing {@code seat} in a rollout.
+     */
+    protected User rolloutUser(int seat) {
+        return new DummyAI();
     }
 
-    private Set<User> simulate() {
+    private double[] simulate() {
         List<User> dummies = new ArrayList<>();
-        Map<User, User> original = new HashMap<>();
-        for (User user : this.users) {
-            User dummy = new DummyAI();
-            dummies.add(dummy);
-            original.put(dummy, user);
-        }
-        UndoableController uc = new UndoableController(this.simulator, dummies);
-        Set<User> winners = new HashSet<>();
-        for (User dummy : uc.play()) {
-            winners.add(original.get(dummy));
-        }
-        return winners;
+        for (int i = 0; i < this.users.size(); ++i) {
+            dummies.add(rolloutUser(i));
+        }
+        UndoableController uc = new UndoableController(this.simulator, dummies,
+                this.random.split());
+        // Not trusted: the moves of the rollout users are heuristic
+        uc.play();
+        return rewards(uc);
     }
 
-    protected Set<Move> getMovesToConsider(User user) {
+    protected int[] getMovesToConsider(User user) {
         return getLegalMoves(this.simulator, user);
     }
 
-    private static Set<Move> getLegalMoves(Controller ctrl, User user) {
-        Set<Move> legalMoves = new HashSet<>();
+    private static int[] getLegalMoves(Controller ctrl, User user) {
         if (ctrl.gameOver()) {
-            return legalMoves;
+            return new int[0];
         }
+        int[] legalMoves = new int[MAX_MOVES];
+        int count = 0;
         ReadOnlyPlayer p = ctrl.player(user);
+        // Check the affordability of every visible card at once
+        Map<Tier, ReadOnlyCardDeck> decks = ctrl.decks();
+        CostTable visible = new CostTable(Controller.VISIBLE_CARDS);
+        for (ReadOnlyCardDeck d : decks.values()) {
+            d.addDisplay(visible);
+        }
+        int displayed = visible.size();
+        for (Card card : p.reserved()) {
+            visible.add(ctrl.unhide(user, card));
+        }
+        long[] payments = new long[visible.size()];
+        int affordable = p.affordable(visible, payments);
         // Decks
-        for (ReadOnlyCardDeck d : ctrl.decks().values()) {
-            for (Card card : d.display()) {
-                if (p.canPurchase(card)) {
-                    legalMoves.add(Move.purchase(card, getPayment(p, card)));
+        int i = 0;
+        for (ReadOnlyCardDeck d : decks.values()) {
+            for (int end = i + d.displaySize(); i < end; ++i) {
+                Card card = visible.card(i);
+                if ((affordable & 1 << i) != 0) {
+                    legalMoves[count++] = MoveCode.purchase(card, payments[i]);
                 }
                 if (p.canReserve(card)) {
-                    legalMoves.add(Move.reserve(card));
+                    legalMoves[count++] = MoveCode.reserve(card);
                 }
             }
             if (!d.isDeckEmpty()) {
                 Card card = d.peek();
                 if (p.canReserve(card)) {
-                    legalMoves.add(Move.reserve(card));
+                    legalMoves[count++] = MoveCode.reserve(card);
                 }
             }
         }
         // Purchase from reserved pile
-        for (Card card : p.reserved()) {
-            Card trueCard = ctrl.unhide(user, card);
-            if (p.canPurchase(trueCard)) {
-                legalMoves.add(Move.purchase(trueCard, getPayment(p, trueCard)));
+        for (i = displayed; i < visible.size(); ++i) {
+            if ((affordable & 1 << i) != 0) {
+                legalMoves[count++] = MoveCode.purchase(visible.card(i), payments[i]);
             }
         }
         // Tokens
-        List<Color> colorsLeft = new ArrayList<>();
+        int colorsLeft = 0;
         for (Color color : Color.values()) {
             int numTokens = ctrl.tokens(color.toTokenColor());
             if (numTokens > 0) {
-                colorsLeft.add(color);
+                colorsLeft |= 1 << color.ordinal();
             }
             if (numTokens > 3) {
                 // Take two
-                legalMoves.add(Move.takeTwo(color));
+                legalMoves[count++] = MoveCode.takeTwo(color);
             }
         }
         // Take three
-        Set<Color> colorSet = colorsLeft.isEmpty()
-                ? EnumSet.noneOf(Color.class)
-                : EnumSet.copyOf(colorsLeft);
-        if (!legalTakes.containsKey(colorSet)) {
-            Set<Move> moves = new HashSet<>();
-            if (colorsLeft.size() <= 3) {
-                moves.add(Move.takeThree(colorSet));
-            } else {
-                for (int i = 0; i < colorsLeft.size(); ++i) {
-                    for (int j = 0; j < i; ++j) {
-                        for (int k = 0; k < j; ++k) {
-                            moves.add(Move.takeThree(Set.of(colorsLeft.get(i),
-                                    colorsLeft.get(j), colorsLeft.get(k))));
-                        }
-                    }
-                }
-            }
-            legalTakes.put(colorSet, moves);
-        }
-        legalMoves.addAll(legalTakes.get(colorSet));
-        return legalMoves;
+        int[] takes = legalTakes[colorsLeft];
+        System.arraycopy(takes, 0, legalMoves, count, takes.length);
+        return Arrays.copyOf(legalMoves, count + takes.length);
     }
 
-    private static ReadOnlyTokenSet getPayment(ReadOnlyPlayer p, Card card) {
-        TokenSet payment = new TokenSet();
-        for (Color c : Color.values()) {
-            int rem = card.cost(c) - p.cardGems(c);
-            if (rem > 0) {
-                int tokens = p.tokens(c.toTokenColor());
-                if (tokens >= rem) {
-                    payment.give(c.toTokenColor(), rem);
-                } else {
-                    payment.give(c.toTokenColor(), tokens);
-                    payment.give(TokenColor.GOLD, rem - tokens);
+    private static int[] getLegalTakes(int colorsLeft) {
+        if (Integer.bitCount(colorsLeft) <= 3) {
+            return new int[] { MoveCode.takeThree(colorsLeft) };
+        }
+        List<Integer> moves = new ArrayList<>();
+        for (int i = 0; i < Color.values().length; ++i) {
+            for (int j = 0; j < i; ++j) {
+                for (int k = 0; k < j; ++k) {
+                    int mask = 1 << i | 1 << j | 1 << k;
+                    if ((mask & colorsLeft) == mask) {
+                        moves.add(MoveCode.takeThree(mask));
+                    }
                 }
             }
         }
-        return payment;
+        int[] takes = new int[moves.size()];
+        for (int i = 0; i < takes.length; ++i) {
+            takes[i] = moves.get(i);
+        }
+        return takes;
     }
 
     protected static final class Data {
 
         private static final Data NULL = new Data();
+        // The move of a node without one
+        private static final int NONE = -1;
 
+        protected final int seat;
         private final DummyAI user;
-        private Move move;
+        protected final int move;
         private ReadOnlyTokenSet tokens;
         private Noble noble;
-        protected int wins = 0;
+        // The accumulated reward of each seat (null until the first rollout)
+        protected double[] rewards = null;
         protected int sims = 0;
+        // All-moves-as-first statistics (see MCTSv5AI)
+        protected double amafRewards = 0;
+        protected int amafSims = 0;
 
         private Data() {
+            this.seat = -1;
             this.user = null;
-            this.move = null;
+            this.move = NONE;
             this.tokens = null;
             this.noble = null;
         }
 
-        private Data(DummyAI user, Move move) {
+        private Data(int seat, DummyAI user, int move) {
+            this.seat = seat;
             this.user = user;
             this.move = move;
             this.tokens = null;
             this.noble = null;
         }
 
-        private Data(DummyAI user, ReadOnlyTokenSet tokens) {
+        private Data(int seat, DummyAI user, ReadOnlyTokenSet tokens) {
+            this.seat = seat;
             this.user = user;
-            this.move = null;
+            this.move = NONE;
             this.tokens = tokens;
             this.noble = null;
         }
 
-        private Data(DummyAI user, Noble noble) {
+        private Data(int seat, DummyAI user, Noble noble) {
+            this.seat = seat;
             this.user = user;
-            this.move = null;
+            this.move = NONE;
             this.tokens = null;
             this.noble = noble;
         }
 
+        private void add(double[] rewards) {
+            if (this.rewards == null) {
+                this.rewards = new double[rewards.length];
+            }
+            for (int i = 0; i < rewards.length; ++i) {
+                this.rewards[i] += rewards[i];
+            }
+            ++this.sims;
+        }
+
+        // The accumulated reward of the seat that moved
+        protected double wins() {
+            return this.rewards == null ? 0 : this.rewards[this.seat];
+        }
+
+        // The mean reward of the seat that moved (its win rate, by default)
         protected double winRate() {
-            return (double)this.wins / this.sims;
+            return wins() / this.sims;
         }
 
     }
@@ -342,28 +554,13 @@ public class MCTSv0AI extends DefaultAI {
             super(false, "");
         }
 
-        @Override
-        public Move move() {
-            if (this.next != Data.NULL) {
-                if (this.next.move == null) {
-                    this.next.move = super.move();
-                }
-                Move move = this.next.move;
-                this.next = Data.NULL;
-                return move;
-            }
-            return super.move();
-        }
-
         @Override
         public ReadOnlyTokenSet discard(int count) {
             if (this.next != Data.NULL) {
                 if (this.next.tokens == null) {
                     this.next.tokens = super.discard(count);
                 }
-                ReadOnlyTokenSet tokens = this.next.tokens;
-                this.next = Data.NULL;
-                return tokens;
+                return this.next.tokens;
             }
             return super.discard(count);
         }
@@ -374,9 +571,7 @@ public class MCTSv0AI extends DefaultAI {
                 if (this.next.noble == null) {
                     this.next.noble = super.chooseNoble(nobles);
                 }
-                Noble noble = this.next.noble;
-                this.next = Data.NULL;
-                return noble;
+                return this.next.noble;
             }
             return super.chooseNoble(nobles);
         }
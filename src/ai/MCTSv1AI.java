@@ -24,10 +24,10 @@ public final class MCTSv1AI extends MCTSv0AI {
 
     @Override
     protected Tree<Data> getBestChild() {
-        int maxWins = -1;
+        double maxWins = -1;
         List<Tree<Data>> best = new ArrayList<>();
         for (Tree<Data> child : this.current.children()) {
-            int wins = child.data().wins;
+            double wins = child.data().wins();
             if (wins > maxWins) {
                 maxWins = wins;
                 best.clear();
@@ -36,7 +36,7 @@ public final class MCTSv1AI extends MCTSv0AI {
                 best.add(child);
             }
         }
-        return best.isEmpty() ? null : best.get(RANDOM.nextInt(best.size()));
+        return best.isEmpty() ? null : best.get(this.random.nextInt(best.size()));
     }
 
 }
@@ -1,10 +1,9 @@
 package ai;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
-import view.Move;
 import view.Move.Type;
+import view.MoveCode;
 import view.User;
 
 /**
@@ -25,15 +24,16 @@ public final class MCTSv3AI extends MCTSv2AI {
     }
 
     @Override
-    protected Set<Move> getMovesToConsider(User user) {
-        Set<Move> allMoves = super.getMovesToConsider(user);
-        Set<Move> goodMoves = new HashSet<>();
-        for (Move move : allMoves) {
-            if (move.type() != Type.RESERVE) {
-                goodMoves.add(move);
+    protected int[] getMovesToConsider(User user) {
+        int[] allMoves = super.getMovesToConsider(user);
+        int[] goodMoves = new int[allMoves.length];
+        int count = 0;
+        for (int move : allMoves) {
+            if (MoveCode.type(move) != Type.RESERVE) {
+                goodMoves[count++] = move;
             }
         }
-        return goodMoves.isEmpty() ? allMoves : goodMoves;
+        return count == 0 ? allMoves : Arrays.copyOf(goodMoves, count);
     }
 
 }
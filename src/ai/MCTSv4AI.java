@@ -0,0 +1,233 @@
+package ai;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import controller.Controller;
+import model.cards.Card;
+import model.cards.Tier;
+import model.gems.Color;
+import model.nobles.Noble;
+import model.world.ReadOnlyPlayer;
+import util.Tree;
+import view.MoveCode;
+
+/**
+ * An AI employing Monte Carlo tree search. Each move gets a heuristic prior
+ * (in the spirit of {@link WillAI}'s card utilities), the children of a node
+ * are added one at a time in descending prior as its visits grow (progressive
+ * widening), and the best child is chosen according to PUCT. The reward of
+ * each seat blends its win with its point margin over the best other seat, so
+ * that rollouts also tell close games from routs.
+ */
+public final class MCTSv4AI extends MCTSv0AI {
+
+    // A node of n visits has at most max(1, ceil(WIDENING * n^WIDENING_EXPONENT)) children
+    private static final double WIDENING = 1;
+    private static final double WIDENING_EXPONENT = 0.5;
+    // The weight of the priors in PUCT
+    private static final double C_PUCT = 1.5;
+    // The weight of the point margin in the rewards (the rest is the win)
+    private static final double MARGIN_WEIGHT = 0.25;
+
+    // The candidate moves of the expanded nodes
+    private final Map<Tree<Data>, Candidates> candidates = new HashMap<>();
+
+    /**
+     * Create a user with the specified name.
+     *
+     * @param debug Whether the AI prints output.
+     * @param name The name of the user.
+     * @param timeout Maximum time per turn (in seconds)
+     */
+    public MCTSv4AI(boolean debug, String name, int timeout) {
+        super(debug, name, timeout);
+    }
+
+    @Override
+    public void newSearch() {
+        super.newSearch();
+        this.candidates.clear();
+    }
+
+    @Override
+    protected boolean shouldExpand() {
+        Candidates c = this.candidates.get(this.current);
+        // A node without moves (i.e. the game is over) stays a leaf
+        return c == null || this.current.isLeaf() || c.added < c.moves.length
+                && c.added < maxChildren(this.current.data().sims);
+    }
+
+    @Override
+    protected List<Tree<Data>> expand() {
+        Candidates c = this.candidates.get(this.current);
+        if (c == null) {
+            c = new Candidates(getMovesToConsider(currentUser()));
+            this.candidates.put(this.current, c);
+        }
+        if (c.added == c.moves.length) {
+            // The game is over: run the (empty) rollout from here
+            return List.of(this.current);
+        }
+        return List.of(addChild(c.moves[c.added++]));
+    }
+
+    @Override
+    protected Tree<Data> getBestChild() {
+        Candidates c = this.candidates.get(this.current);
+        double sqrtN = Math.sqrt(this.current.data().sims);
+        double maxValue = Double.NEGATIVE_INFINITY;
+        Tree<Data> best = null;
+        List<Tree<Data>> children = this.current.children();
+        for (int i = 0; i < children.size(); ++i) {
+            Data data = children.get(i).data();
+            double value = data.winRate()
+                    + C_PUCT * c.priors[i] * sqrtN / (1 + data.sims);
+            if (value > maxValue) {
+                maxValue = value;
+                best = children.get(i);
+            }
+        }
+        return best;
+    }
+
+    @Override
+    protected Tree<Data> getBestRootChild() {
+        // The most visited child, as PUCT visits the best children the most
+        Tree<Data> best = null;
+        for (Tree<Data> child : this.root.children()) {
+            if (best == null || child.data().sims > best.data().sims) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    protected double[] rewards(Controller game) {
+        double[] rewards = super.rewards(game);
+        for (int i = 0; i < rewards.length; ++i) {
+            int others = 0;
+            for (int j = 0; j < rewards.length; ++j) {
+                if (j != i) {
+                    others = Math.max(others, game.player(j).points());
+                }
+            }
+            double margin = (double)(game.player(i).points() - others) / game.goal;
+            margin = Math.max(-1, Math.min(1, margin));
+            rewards[i] = (1 - MARGIN_WEIGHT) * rewards[i]
+                    + MARGIN_WEIGHT * (1 + margin) / 2;
+        }
+        return rewards;
+    }
+
+    private static int maxChildren(int visits) {
+        return Math.max(1, (int)Math.ceil(WIDENING * Math.pow(visits, WIDENING_EXPONENT)));
+    }
+
+    // The score of each move (higher is better) for the user to move
+    private double[] scores(int[] moves) {
+        ReadOnlyPlayer p = this.simulator.player(currentUser());
+        // The share of each color in what the player lacks for the cards on display
+        double[] demand = new double[Color.values().length];
+        double total = 0;
+        for (Tier t : Tier.values()) {
+            for (Card card : this.simulator.deck(t).display()) {
+                for (Color color : Color.values()) {
+                    int lack = card.cost(color) - p.cardGems(color)
+                            - p.tokens(color.toTokenColor());
+                    if (lack > 0) {
+                        demand[color.ordinal()] += lack;
+                        total += lack;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < demand.length; ++i) {
+            demand[i] = total > 0 ? demand[i] / total : 0;
+        }
+        double[] scores = new double[moves.length];
+        for (int i = 0; i < moves.length; ++i) {
+            int move = moves[i];
+            switch (MoveCode.type(move)) {
+                case PURCHASE: {
+                    // A card reserved from the top of a deck is still hidden
+                    Card card = this.simulator.unhide(currentUser(),
+                            this.simulator.decode(move).card());
+                    scores[i] = 3 + card.points() + noblePoints(p, card.color());
+                    break;
+                }
+                case RESERVE:
+                    // The top card of a deck is unknown to the player
+                    scores[i] = MoveCode.isHidden(move) ? 0.5
+                            : 1 + this.simulator.decode(move).card().points() / 2.0;
+                    break;
+                case TAKE_TWO:
+                    scores[i] = 1 + 2 * demand[MoveCode.color(move).ordinal()];
+                    break;
+                case TAKE_THREE: {
+                    int mask = MoveCode.colorMask(move);
+                    scores[i] = 1;
+                    for (Color color : Color.values()) {
+                        if ((mask & 1 << color.ordinal()) != 0) {
+                            scores[i] += demand[color.ordinal()];
+                        }
+                    }
+                    break;
+                }
+                default:
+                    throw new InternalError("This is impossible!");
+            }
+        }
+        return scores;
+    }
+
+    // The points of the nobles a gem of the color brings the player closer to,
+    // each divided by the gems the player still lacks for it
+    private double noblePoints(ReadOnlyPlayer p, Color rewardGem) {
+        double points = 0;
+        for (Noble n : this.simulator.nobles().contents()) {
+            if (n.cost(rewardGem) > p.cardGems(rewardGem)) {
+                int left = 0;
+                for (Color color : Color.values()) {
+                    left += Math.max(0, n.cost(color) - p.cardGems(color));
+                }
+                points += (double)n.points / left;
+            }
+        }
+        return points;
+    }
+
+    // The moves of a node by descending prior, and how many were added as children
+    private final class Candidates {
+
+        private final int[] moves;
+        private final double[] priors;
+        private int added = 0;
+
+        private Candidates(int[] moves) {
+            double[] scores = scores(moves);
+            double total = 0;
+            for (double score : scores) {
+                total += score;
+            }
+            // Stable insertion sort by descending score
+            this.moves = moves.clone();
+            this.priors = new double[moves.length];
+            for (int i = 0; i < moves.length; ++i) {
+                int move = moves[i];
+                double prior = scores[i] / total;
+                int j = i;
+                for (; j > 0 && this.priors[j - 1] < prior; --j) {
+                    this.moves[j] = this.moves[j - 1];
+                    this.priors[j] = this.priors[j - 1];
+                }
+                this.moves[j] = move;
+                this.priors[j] = prior;
+            }
+        }
+
+    }
+
+}
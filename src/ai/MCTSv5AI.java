@@ -0,0 +1,109 @@
+package ai;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import util.Tree;
+import view.Move;
+import view.MoveCode;
+import view.User;
+
+/**
+ * An AI employing Monte Carlo tree search with RAVE: every rollout also
+ * updates the all-moves-as-first (AMAF) statistics of the siblings whose move
+ * was played later by the same seat, whether in the tree or in the rollout.
+ * The best child is chosen according to the formula of {@link MCTSv2AI},
+ * with the win rate blended with the AMAF win rate, whose weight decays as
+ * the child gets visits.
+ */
+public final class MCTSv5AI extends MCTSv2AI {
+
+    // The number of visits at which the AMAF and actual win rates weigh the same
+    private static final double RAVE_EQUIVALENCE = 250;
+
+    // The (seat, move) keys played below the nodes being backpropagated
+    private final Set<Long> played = new HashSet<>();
+
+    /**
+     * Create a user with the specified name.
+     *
+     * @param debug Whether the AI prints output.
+     * @param name The name of the user.
+     * @param timeout Maximum time per turn (in seconds)
+     */
+    public MCTSv5AI(boolean debug, String name, int timeout) {
+        super(debug, name, timeout);
+    }
+
+    @Override
+    protected Tree<Data> getBestChild() {
+        double maxValue = Double.NEGATIVE_INFINITY;
+        Tree<Data> best = null;
+        double lnNi = Math.log(this.current.data().sims);
+        for (Tree<Data> child : this.current.children()) {
+            Data data = child.data();
+            // The weight schedule of Gelly and Silver
+            double beta = Math.sqrt(RAVE_EQUIVALENCE
+                    / (3 * data.sims + RAVE_EQUIVALENCE));
+            double amafRate = data.amafSims == 0 ? data.winRate()
+                    : data.amafRewards / data.amafSims;
+            double value = (1 - beta) * data.winRate() + beta * amafRate
+                    + Math.sqrt(2 * lnNi / data.sims);
+            if (value > maxValue) {
+                maxValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    protected void backpropagate(double[] rewards) {
+        super.backpropagate(rewards);
+        // The rollout moves are in played already; add those of the tree
+        // bottom-up, so that each node sees the moves played below it
+        for (Tree<Data> n = this.current; n != null; n = n.parent()) {
+            for (Tree<Data> child : n.children()) {
+                Data data = child.data();
+                if (this.played.contains(key(data.seat, data.move))) {
+                    data.amafRewards += rewards[data.seat];
+                    ++data.amafSims;
+                }
+            }
+            Data data = n.data();
+            if (data.move >= 0) {
+                this.played.add(key(data.seat, data.move));
+            }
+        }
+        this.played.clear();
+    }
+
+    @Override
+    protected User rolloutUser(int seat) {
+        return new Recorder(seat);
+    }
+
+    private static long key(int seat, int move) {
+        return (long)seat << Integer.SIZE | move;
+    }
+
+    // A rollout user recording its moves in played
+    private final class Recorder extends DefaultAI {
+
+        private final int seat;
+
+        private Recorder(int seat) {
+            super(false, "");
+            this.seat = seat;
+        }
+
+        @Override
+        public Move move() {
+            Move move = super.move();
+            MCTSv5AI.this.played.add(key(this.seat, MoveCode.encode(move)));
+            return move;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import util.Tree;
+
+/**
+ * An AI employing Monte Carlo tree search with sequential halving at the
+ * root: the budget is split evenly between rounds, and the budget of a round
+ * evenly between the remaining moves of the root, after which the worse half
+ * of them (by win rate) is dropped. Below the root, the best child is chosen
+ * according to the formula of {@link MCTSv2AI}. As only the move played
+ * matters at the root, this spends less of the budget on moves that are
+ * already known to be worse, and the time of a search does not depend on how
+ * its statistics evolve. A move only gets iterations while the time of its
+ * round (and of the search) is not up, so once the budget is spent, the
+ * search stops and plays the best remaining move.
+ */
+public final class MCTSv6AI extends MCTSv2AI {
+
+    // The child of the root that every iteration goes through, if not null
+    private Tree<Data> forced = null;
+    // The move found by the last sequential halving, if not null
+    private Tree<Data> halved = null;
+
+    /**
+     * Create a user with the specified name.
+     *
+     * @param debug Whether the AI prints output.
+     * @param name The name of the user.
+     * @param timeout Maximum time per turn (in seconds)
+     */
+    public MCTSv6AI(boolean debug, String name, int timeout) {
+        super(debug, name, timeout);
+    }
+
+    @Override
+    public void newSearch() {
+        super.newSearch();
+        this.forced = null;
+        this.halved = null;
+    }
+
+    @Override
+    protected void search(long budget) {
+        long startTime = System.nanoTime();
+        // Expand the root, which runs every move once
+        iterate();
+        List<Tree<Data>> candidates = this.root.children();
+        if (candidates.isEmpty()) {
+            return;
+        }
+        int rounds = Math.max(1,
+                Integer.SIZE - Integer.numberOfLeadingZeros(candidates.size() - 1));
+        long searchEnd = startTime + budget;
+        for (int r = 1; r <= rounds && candidates.size() > 1; ++r) {
+            long roundEnd = startTime + budget / rounds * r;
+            long slice = (roundEnd - System.nanoTime()) / candidates.size();
+            for (Tree<Data> candidate : candidates) {
+                this.forced = candidate;
+                // An iteration can take many rollouts, so a move whose time
+                // is up (e.g. after an overrun) gets none
+                long end = Math.min(System.nanoTime() + slice, searchEnd);
+                while (System.nanoTime() < end) {
+                    iterate();
+                }
+            }
+            // Keep the better half (the sort is stable)
+            candidates.sort((a, b) -> Double.compare(b.data().winRate(),
+                    a.data().winRate()));
+            if (System.nanoTime() >= searchEnd) {
+                break;
+            }
+            candidates = new ArrayList<>(candidates.subList(0,
+                    (candidates.size() + 1) / 2));
+        }
+        this.forced = null;
+        this.halved = candidates.get(0);
+    }
+
+    @Override
+    protected Tree<Data> getBestChild() {
+        if (this.forced != null && this.current == this.root) {
+            return this.forced;
+        }
+        return super.getBestChild();
+    }
+
+    @Override
+    protected Tree<Data> getBestRootChild() {
+        return this.halved != null ? this.halved : super.getBestRootChild();
+    }
+
+}
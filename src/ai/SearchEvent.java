@@ -0,0 +1,90 @@
+package ai;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event for a single search (i.e. move) of an {@link MCTSv0AI}, carrying
+ * its {@link SearchStats}. The event is only filled in and committed when
+ * recording is enabled.
+ */
+@Name("rodnelps.Search")
+@Label("MCTS Search")
+@Category({"Rodnelps", "AI"})
+@Description("A search for a move by an MCTS AI")
+final class SearchEvent extends jdk.jfr.Event {
+
+    /** The name of the searching AI. */
+    @Label("AI")
+    String ai;
+    /** See {@link SearchStats#iterations}. */
+    @Label("Iterations")
+    long iterations;
+    /** See {@link SearchStats#rollouts}. */
+    @Label("Rollouts")
+    long rollouts;
+    /** See {@link SearchStats#nodes}. */
+    @Label("Nodes")
+    long nodes;
+    /** See {@link SearchStats#maxDepth}. */
+    @Label("Max Depth")
+    int maxDepth;
+    /** See {@link SearchStats#averageDepth()}. */
+    @Label("Average Depth")
+    double averageDepth;
+    /** See {@link SearchStats#selectionNanos}. */
+    @Label("Selection")
+    @Timespan
+    long selection;
+    /** See {@link SearchStats#expansionNanos}. */
+    @Label("Expansion")
+    @Timespan
+    long expansion;
+    /** See {@link SearchStats#simulationNanos}. */
+    @Label("Simulation")
+    @Timespan
+    long simulation;
+    /** See {@link SearchStats#backpropagationNanos}. */
+    @Label("Backpropagation")
+    @Timespan
+    long backpropagation;
+    /** See {@link SearchStats#undoNanos}. */
+    @Label("Undo")
+    @Timespan
+    long undo;
+    /** The visits of the children of the root, space-separated. */
+    @Label("Root Visits")
+    String rootVisits;
+
+    /**
+     * Fill in the fields of the event.
+     *
+     * @param ai The name of the searching AI.
+     * @param stats The {@link SearchStats} of the search.
+     */
+    void set(String ai, SearchStats stats) {
+        this.ai = ai;
+        this.iterations = stats.iterations;
+        this.rollouts = stats.rollouts;
+        this.nodes = stats.nodes;
+        this.maxDepth = stats.maxDepth;
+        this.averageDepth = stats.averageDepth();
+        this.selection = stats.selectionNanos;
+        this.expansion = stats.expansionNanos;
+        this.simulation = stats.simulationNanos;
+        this.backpropagation = stats.backpropagationNanos;
+        this.undo = stats.undoNanos;
+        StringBuilder sb = new StringBuilder();
+        for (int v : stats.rootVisits()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(v);
+        }
+        this.rootVisits = sb.toString();
+    }
+
+}
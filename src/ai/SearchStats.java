@@ -0,0 +1,118 @@
+package ai;
+
+import java.util.List;
+
+import view.Move;
+
+/** The statistics of a single search (i.e. move) of an {@link MCTSv0AI}. */
+public final class SearchStats {
+
+    /** The number of iterations of the search. */
+    public final long iterations;
+    /** The number of rollouts (simulated games) of the search. */
+    public final long rollouts;
+    /** The number of tree nodes allocated by the search. */
+    public final long nodes;
+    /** The maximum depth reached by selection. */
+    public final int maxDepth;
+    /** The total depth reached by selection, over all iterations. */
+    private final long totalDepth;
+    /** The time spent in selection (in nanoseconds). */
+    public final long selectionNanos;
+    /** The time spent in expansion (in nanoseconds). */
+    public final long expansionNanos;
+    /** The time spent in simulation (in nanoseconds). */
+    public final long simulationNanos;
+    /** The time spent in backpropagation (in nanoseconds). */
+    public final long backpropagationNanos;
+    /** The time spent marking and undoing the simulator (in nanoseconds). */
+    public final long undoNanos;
+    /** The {@link Move}s of the children of the root. */
+    private final List<Move> rootMoves;
+    /** The number of visits of each child of the root. */
+    private final int[] rootVisits;
+
+    /**
+     * Create {@link SearchStats}.
+     *
+     * @param iterations The number of iterations of the search.
+     * @param rollouts The number of rollouts of the search.
+     * @param nodes The number of tree nodes allocated by the search.
+     * @param maxDepth The maximum depth reached by selection.
+     * @param totalDepth The total depth reached by selection.
+     * @param times The time spent in selection, expansion, simulation,
+     *            backpropagation and undo bookkeeping (in that order).
+     * @param rootMoves The {@link Move}s of the children of the root.
+     * @param rootVisits The number of visits of each child of the root.
+     */
+    SearchStats(long iterations, long rollouts, long nodes, int maxDepth,
+                long totalDepth, long[] times, List<Move> rootMoves,
+                int[] rootVisits) {
+        this.iterations = iterations;
+        this.rollouts = rollouts;
+        this.nodes = nodes;
+        this.maxDepth = maxDepth;
+        this.totalDepth = totalDepth;
+        this.selectionNanos = times[0];
+        this.expansionNanos = times[1];
+        this.simulationNanos = times[2];
+        this.backpropagationNanos = times[3];
+        this.undoNanos = times[4];
+        this.rootMoves = List.copyOf(rootMoves);
+        this.rootVisits = rootVisits.clone();
+    }
+
+    /**
+     * @return The average depth reached by selection.
+     */
+    public double averageDepth() {
+        return this.iterations == 0 ? 0 : (double)this.totalDepth / this.iterations;
+    }
+
+    /**
+     * @return The total time accounted for by the search (in nanoseconds).
+     */
+    public long totalNanos() {
+        return this.selectionNanos + this.expansionNanos + this.simulationNanos
+                + this.backpropagationNanos + this.undoNanos;
+    }
+
+    /**
+     * @return The {@link Move}s of the children of the root, in the order of
+     *             {@link #rootVisits()}.
+     */
+    public List<Move> rootMoves() {
+        return this.rootMoves;
+    }
+
+    /**
+     * @return The number of visits of each child of the root, in the order of
+     *             {@link #rootMoves()}.
+     */
+    public int[] rootVisits() {
+        return this.rootVisits.clone();
+    }
+
+    @Override
+    public String toString() {
+        double total = Math.max(totalNanos(), 1) / 100.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Search: ").append(this.iterations).append(" iteration(s), ")
+          .append(this.rollouts).append(" rollout(s), ")
+          .append(this.nodes).append(" node(s)\n");
+        sb.append(String.format("Depth: max %d, average %.2f%n",
+                this.maxDepth, averageDepth()));
+        sb.append(String.format("Time: %.1f ms (selection %.1f%%, expansion %.1f%%,"
+                + " simulation %.1f%%, backpropagation %.1f%%, undo %.1f%%)%n",
+                totalNanos() / 1e6, this.selectionNanos / total,
+                this.expansionNanos / total, this.simulationNanos / total,
+                this.backpropagationNanos / total, this.undoNanos / total));
+        sb.append("Root visits:");
+        for (int v : this.rootVisits) {
+            sb.append(" ").append(v);
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+}
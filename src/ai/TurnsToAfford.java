@@ -0,0 +1,166 @@
+package ai;
+
+import model.gems.Color;
+import model.gems.PackedGems;
+
+/**
+ * An estimate of the number of turns a player needs to take the tokens that
+ * a card still requires: each turn, the player takes two tokens of the most
+ * required color if it is the only one required (and the bank has enough of
+ * them), or else one token of each of the three most required colors.
+ * <p>
+ * An estimate only depends on the remaining cost and on the colors of which
+ * two tokens can be taken, so estimates are memoized in a table shared by all
+ * the threads. Each entry is a single {@code int}, which is only ever written
+ * with the same value, so a thread that misses an entry another thread has
+ * just written merely computes it again; the table needs no locking.
+ */
+public final class TurnsToAfford {
+
+    /** The {@link Color}s, by ordinal. */
+    private static final Color[] COLORS = Color.values();
+    /** The number of bits of the remaining cost of a {@link Color} in a key. */
+    private static final int BITS = 3;
+    /** The largest remaining cost of a {@link Color} that is memoized. */
+    public static final int MAX_REMAINING = (1 << BITS) - 1;
+    /** The number of bits of each field of an estimate. */
+    private static final int FIELD_BITS = 8;
+    /** The mask of a field of an estimate. */
+    private static final int FIELD = (1 << FIELD_BITS) - 1;
+    /** The bit set in every computed estimate, so that 0 means "missing". */
+    private static final int COMPUTED = 1 << (3 * FIELD_BITS);
+    /** The memoized estimates, by key (see {@link #key}). */
+    private static final int[] MEMO =
+            new int[1 << (COLORS.length * (BITS + 1))];
+
+    /** This class is not to be instantiated. */
+    private TurnsToAfford() {}
+
+    /**
+     * Estimate the turns needed to take {@code remaining}.
+     *
+     * @param remaining The tokens still required of each {@link Color}, in
+     *            packed form (see {@link PackedGems}).
+     * @param takeTwoMask The mask of the ordinals of the {@link Color}s of
+     *            which two tokens can be taken.
+     * @return The estimate, whose fields are read with {@link #turns},
+     *             {@link #takeTwos} and {@link #surplus}.
+     */
+    public static int estimate(long remaining, int takeTwoMask) {
+        int key = key(remaining, takeTwoMask);
+        if (key < 0) {
+            return compute(remaining, takeTwoMask);
+        }
+        int estimate = MEMO[key];
+        if (estimate == 0) {
+            estimate = compute(remaining, takeTwoMask);
+            MEMO[key] = estimate;
+        }
+        return estimate;
+    }
+
+    /**
+     * @param estimate An estimate (see {@link #estimate}).
+     * @return The number of turns needed.
+     */
+    public static int turns(int estimate) {
+        return estimate >>> (2 * FIELD_BITS) & FIELD;
+    }
+
+    /**
+     * @param estimate An estimate (see {@link #estimate}).
+     * @return The number of those turns in which two tokens are taken.
+     */
+    public static int takeTwos(int estimate) {
+        return estimate >>> FIELD_BITS & FIELD;
+    }
+
+    /**
+     * @param estimate An estimate (see {@link #estimate}).
+     * @return The number of tokens taken beyond those required.
+     */
+    public static int surplus(int estimate) {
+        return estimate & FIELD;
+    }
+
+    /**
+     * @param remaining The packed remaining cost.
+     * @param takeTwoMask The mask of the {@link Color}s of which two tokens
+     *            can be taken.
+     * @return The key of the estimate in {@link #MEMO}, or {@code -1} if a
+     *             remaining cost is above {@link #MAX_REMAINING}.
+     */
+    private static int key(long remaining, int takeTwoMask) {
+        int key = takeTwoMask & ((1 << COLORS.length) - 1);
+        for (Color c : COLORS) {
+            int required = PackedGems.get(remaining, c);
+            if (required > MAX_REMAINING) {
+                return -1;
+            }
+            key = key << BITS | required;
+        }
+        return key;
+    }
+
+    /**
+     * Compute an estimate (see {@link #estimate}).
+     *
+     * @param remaining The packed remaining cost.
+     * @param takeTwoMask The mask of the {@link Color}s of which two tokens
+     *            can be taken.
+     * @return The estimate.
+     */
+    private static int compute(long remaining, int takeTwoMask) {
+        // The colors by descending requirement (ties by ordinal)
+        int[] colors = new int[COLORS.length];
+        int[] required = new int[COLORS.length];
+        for (Color c : COLORS) {
+            colors[c.ordinal()] = c.ordinal();
+            required[c.ordinal()] = PackedGems.get(remaining, c);
+        }
+        sort(colors, required);
+        int turns = 0;
+        int takeTwos = 0;
+        while (required[0] > 0) {
+            if (required[1] <= 0 && required[0] > 1
+                    && (takeTwoMask & 1 << colors[0]) != 0) {
+                required[0] -= 2;
+                ++takeTwos;
+            } else {
+                --required[0];
+                --required[1];
+                --required[2];
+                sort(colors, required);
+            }
+            ++turns;
+        }
+        int surplus = 0;
+        for (int r : required) {
+            surplus -= r;
+        }
+        return COMPUTED | turns << (2 * FIELD_BITS) | takeTwos << FIELD_BITS
+                | surplus;
+    }
+
+    /**
+     * Stably sort {@code colors} and {@code required} by descending
+     * {@code required}.
+     *
+     * @param colors The color ordinals.
+     * @param required The requirement of each of {@code colors}.
+     */
+    private static void sort(int[] colors, int[] required) {
+        for (int i = 1; i < required.length; ++i) {
+            int color = colors[i];
+            int r = required[i];
+            int j = i;
+            for (; j > 0 && required[j - 1] < r; --j) {
+                colors[j] = colors[j - 1];
+                required[j] = required[j - 1];
+            }
+            colors[j] = color;
+            required[j] = r;
+        }
+    }
+
+}
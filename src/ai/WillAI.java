@@ -2,7 +2,9 @@ package ai;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import model.cards.Card;
@@ -10,6 +12,7 @@ import model.cards.ReadOnlyCardDeck;
 import model.cards.Tier;
 import model.gems.Color;
 import model.gems.GemSet;
+import model.gems.PackedGems;
 import model.gems.TokenColor;
 import model.nobles.Noble;
 import model.world.ReadOnlyPlayer;
@@ -40,9 +43,14 @@ public final class WillAI extends DefaultAI {
                 cards.add(c);
             }
         }
-        cards.sort((a, b) -> { // Sort by descending utility
-            double A = cardUtility(a, this.player);
-            double B = cardUtility(b, this.player);
+        // Score each card once, then sort by descending utility
+        Map<Card, Double> utilities = new IdentityHashMap<>();
+        for (Card c : cards) {
+            utilities.put(c, cardUtility(c, this.player));
+        }
+        cards.sort((a, b) -> {
+            double A = utilities.get(a);
+            double B = utilities.get(b);
             return A > B ? -1 : (A == B ? 0 : 1);
         });
         for (int i = tiers.length - 1; i >= 0; --i) {
@@ -107,17 +115,12 @@ public final class WillAI extends DefaultAI {
             }
         }
         if (empty) {
-            for (ReadOnlyCardDeck d : this.controller.decks().values()) {
-                for (Card card : d.display()) {
-                    if (this.player.canPurchase(card)) {
-                        return purchase(card);
-                    }
-                }
-            }
-            for (Card card : this.player.reserved()) {
-                if (this.player.canPurchase(card)) {
-                    return purchase(card);
-                }
+            int affordable = affordable(this.controller.deck(Tier.LOW),
+                    this.controller.deck(Tier.MID),
+                    this.controller.deck(Tier.HIGH));
+            if (affordable != 0) {
+                int i = Integer.numberOfTrailingZeros(affordable);
+                return purchase(this.visible.card(i));
             }
             for (Card c : considered) {
                 if (this.player.canReserve(c)) {
@@ -146,17 +149,6 @@ public final class WillAI extends DefaultAI {
         return Move.takeThree(taken);
     }
 
-    @SuppressWarnings("javadoc")
-    private class Pair<U, V> {
-        private U first;
-        private V second;
-
-        private Pair(U x, V y) {
-            this.first = x;
-            this.second = y;
-        }
-    }
-
     @SuppressWarnings("javadoc")
     private static double turnUtility(double turns) {
         return turns;
@@ -172,57 +164,64 @@ public final class WillAI extends DefaultAI {
         return x * (x - 1) / 4.0;
     }
 
-    @SuppressWarnings("javadoc")
-    private Pair<Double, Integer> turnsRequired(Card c, ReadOnlyPlayer p) {
-        List<Pair<Color, Integer>> requirements = new ArrayList<>();
-        int turns = 0;
-        int take2 = 0;
+    /**
+     * @param c The card to afford.
+     * @return The number of gold tokens needed for the colors of the cost of
+     *             {@code c} the bank has run out of, each of which takes a
+     *             reservation (i.e. a turn).
+     */
+    private int reservationsRequired(Card c) {
+        int reservations = 0;
         for (Color color : Color.values()) {
             if (this.controller.tokens(color.toTokenColor()) == 0) {
-                // have to reserve gold token at the moment
-                turns += c.cost(color);
-                requirements.add(new Pair<>(color, 0));
-            } else {
-                int required = c.cost(color);
-                required = Math.max(required - p.tokens(color.toTokenColor()) - p.cardGems(color), 0);
-                requirements.add(new Pair<>(color, required));
+                reservations += c.cost(color);
             }
         }
+        return reservations;
+    }
 
-        // card is unreachable; set high number of turns; 3 is max number of gold tokens
-        if (turns > 3) {
-            return new Pair<>(100.0, 0);
-        }
-        requirements.sort((a, b) -> b.second - a.second);
-        while (requirements.get(0).second > 0) {
-            Pair<Color, Integer> color1 = requirements.get(0);
-            Pair<Color, Integer> color2 = requirements.get(1);
-            Pair<Color, Integer> color3 = requirements.get(2);
-            // take two
-            if (color2.second <= 0 && color1.second > 1 && this.controller.tokens(color1.first.toTokenColor()) > 3) {
-                color1.second -= 2;
-                take2++;
-                turns++;
-            } else { // take three
-                color1.second -= 1;
-                color2.second -= 1;
-                color3.second -= 1;
-                turns++;
-                requirements.sort((a, b) -> b.second - a.second);
+    /**
+     * Estimate the turns {@code p} needs to take the tokens {@code c}
+     * requires from the colors the bank still has (see
+     * {@link TurnsToAfford}).
+     *
+     * @param c The card to afford.
+     * @param p The player.
+     * @return The estimate.
+     */
+    private int turnsRequired(Card c, ReadOnlyPlayer p) {
+        long remaining = 0;
+        int takeTwoMask = 0;
+        for (Color color : Color.values()) {
+            int bank = this.controller.tokens(color.toTokenColor());
+            if (bank > 0) {
+                int required = c.cost(color);
+                required = Math.max(required - p.tokens(color.toTokenColor()) - p.cardGems(color), 0);
+                remaining += required * PackedGems.one(color);
+                if (bank > 3) {
+                    takeTwoMask |= 1 << color.ordinal();
+                }
             }
         }
-        int surplus = 0;
-        for (Pair<Color, Integer> color : requirements) {
-            surplus -= color.second;
-        }
-        return new Pair<>(turns + take2Penalty(take2), surplus);
+        return TurnsToAfford.estimate(remaining, takeTwoMask);
     }
 
     @SuppressWarnings("javadoc")
     private double cardUtility(Card c, ReadOnlyPlayer p) {
         int points = c.points();
-        Pair<Double, Integer> pair = turnsRequired(c, p);
-        double turns = pair.first;
+        int reservations = reservationsRequired(c);
+        double turns;
+        double tokenSurplus;
+        // card is unreachable; set high number of turns; 3 is max number of gold tokens
+        if (reservations > 3) {
+            turns = 100.0;
+            tokenSurplus = 0;
+        } else {
+            int estimate = turnsRequired(c, p);
+            turns = reservations + TurnsToAfford.turns(estimate)
+                    + take2Penalty(TurnsToAfford.takeTwos(estimate));
+            tokenSurplus = (double)TurnsToAfford.surplus(estimate) / 3;
+        }
         double noblePts = 0;
         Color rewardGem = c.color();
         for (Noble n : this.controller.nobles().contents()) {
@@ -234,7 +233,6 @@ public final class WillAI extends DefaultAI {
                 noblePts += (double)n.points / left;
             }
         }
-        double tokenSurplus = (double)pair.second / 3;
         int prevGems = p.cardGems(rewardGem);
         return -turnUtility(turns) + points + noblePts + tokenSurplus - prevGemUtility(prevGems);
     }
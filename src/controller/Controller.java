@@ -2,15 +2,15 @@ package controller;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import model.cards.Card;
 import model.cards.CardDeck;
+import model.cards.CostTable;
 import model.cards.ReadOnlyCardDeck;
 import model.cards.Tier;
 import model.gems.Color;
@@ -23,6 +23,7 @@ import model.nobles.ReadOnlyNobleDeck;
 import model.world.Player;
 import model.world.ReadOnlyPlayer;
 import view.Move;
+import view.MoveCode;
 import view.User;
 
 /** The game controller. All mutations to the model should go through here. */
@@ -30,6 +31,14 @@ public class Controller {
 
     /** The maximum number of tokens a player can hold at any given time. */
     public static final int MAX_TOKENS = 10;
+    /**
+     * The largest number of {@link Card}s a player can buy from, i.e. the
+     * {@link Card}s on display and in reserve.
+     */
+    public static final int VISIBLE_CARDS =
+            Tier.values().length * CardDeck.DISPLAY_CAP + Player.RESERVE_CAP;
+    /** The {@link Color}s, by ordinal. */
+    private static final Color[] COLORS = Color.values();
 
     /** The different possible phases of a turn. */
     public enum Phase {
@@ -46,14 +55,18 @@ public class Controller {
 
     /** The {@link User}s in the game. */
     private final List<User> users = new ArrayList<>();
-    /** The {@link Player}s of the {@link User}s in the game. */
-    protected final Map<User, Player> players = new HashMap<>();
+    /** The {@link Player}s of the {@link User}s in the game, by seat. */
+    protected final Player[] players;
     /** The {@link CardDeck}s (of each {@link Tier}) in the game. */
     protected final Map<Tier, CardDeck> decks = new EnumMap<>(Tier.class);
     /** The tokens that are currently available. */
     protected final TokenSet tokens = new TokenSet();
     /** The nobles that are still available. */
     protected final NobleDeck nobles;
+    /** The seed of the game. */
+    private final long seed;
+    /** The source of all randomness of the game. */
+    private final SplittableRandom random;
 
     /** The number of rounds that have passed. */
     protected int rounds = 0;
@@ -61,28 +74,62 @@ public class Controller {
     protected int currUserIdx = 0;
     /** The current {@link Phase} of the current turn. */
     protected Phase phase = Phase.MOVE;
+    /** The highest number of points of any player. */
+    protected int maxPoints = 0;
+    /** The number of non-gold tokens in {@link #tokens}. */
+    protected int coloredTokens = 0;
+    /** A scratch table of the {@link Card}s a player can buy from. */
+    private final CostTable visible = new CostTable(VISIBLE_CARDS);
+    /** Records the latencies of the decisions of the users, if not null. */
+    private Metrics metrics = null;
+    /** The name under which each seat is recorded in {@link #metrics}. */
+    private String[] metricNames = null;
+    /**
+     * Whether the moves of the users are trusted to be legal, in which case
+     * they are not validated. Discards and noble choices are still validated.
+     * The game state is undefined if a trusted move is illegal.
+     */
+    protected boolean trusted = false;
 
     /**
-     * Create a new instance of the game. Play begins from the first
-     * {@link User} in {@code users} and proceeds sequentially.
+     * Create a new instance of the game with a random seed. Play begins from
+     * the first {@link User} in {@code users} and proceeds sequentially.
      *
      * @param goal The number of points needed to win.
      * @param users The {@link User}s in the game.
      */
     public Controller(int goal, List<? extends User> users) {
+        this(goal, users, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Create a new instance of the game. Play begins from the first
+     * {@link User} in {@code users} and proceeds sequentially. All randomness
+     * of the game (including that of the {@link User}s, if they use
+     * {@link #splitRandom()}) is determined by {@code seed}.
+     *
+     * @param goal The number of points needed to win.
+     * @param users The {@link User}s in the game.
+     * @param seed The seed of the game.
+     */
+    public Controller(int goal, List<? extends User> users, long seed) {
         int no_of_users = users.size();
         this.goal = goal;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         this.users.addAll(users);
-        for (User u : users) {
-            this.players.put(u, new Player());
+        this.players = new Player[no_of_users];
+        for (int i = 0; i < no_of_users; ++i) {
+            this.players[i] = new Player();
         }
         for (Tier t : Tier.values()) {
-            this.decks.put(t, new CardDeck(t));
+            this.decks.put(t, new CardDeck(t, this.random.split()));
         }
         for (TokenColor c : TokenColor.values()) {
             this.tokens.put(c, numTokens(c, no_of_users));
         }
-        this.nobles = new NobleDeck(no_of_users + 1);
+        this.coloredTokens = countColoredTokens();
+        this.nobles = new NobleDeck(no_of_users + 1, this.random.split());
         for (User u : users) {
             u.setController(this);
         }
@@ -98,17 +145,36 @@ public class Controller {
      *             size as {@code controller.users}.
      */
     public Controller(Controller controller, List<? extends User> users) {
+        this(controller, users, new SplittableRandom());
+    }
+
+    /**
+     * Create a copy of {@code controller} but with {@link #users} replaced by
+     * {@code users} and the decks shuffled. All randomness of the copy is
+     * drawn from {@code random}; the randomness of {@code controller} is not
+     * touched.
+     *
+     * @param controller The {@link Controller} to copy.
+     * @param users The {@link User}s in the game.
+     * @param random The source of all randomness of the copy.
+     * @throws IllegalArgumentException If {@code users} does not have the same
+     *             size as {@code controller.users}.
+     */
+    public Controller(Controller controller, List<? extends User> users,
+                      SplittableRandom random) {
         if (controller.numberOfUsers() != users.size()) {
             throw new IllegalArgumentException(
                     "users does not have the same size as controller.users.");
         }
         this.goal = controller.goal;
+        this.seed = controller.seed;
+        this.random = random;
         this.users.addAll(users);
+        this.players = new Player[users.size()];
         for (int i = 0; i < users.size(); ++i) {
-            Player player = controller.players.get(controller.users.get(i));
-            Player clone = player.clone();
-            this.players.put(users.get(i), clone);
+            this.players[i] = controller.players[i].clone();
         }
+        this.maxPoints = controller.maxPoints;
         for (Tier t : Tier.values()) {
             this.decks.put(t, controller.decks.get(t).clone());
         }
@@ -117,12 +183,13 @@ public class Controller {
         this.rounds = controller.rounds;
         this.currUserIdx = controller.currUserIdx;
         this.phase = controller.phase;
+        this.coloredTokens = controller.coloredTokens;
+        for (CardDeck deck : this.decks.values()) {
+            deck.shuffle(this.random);
+        }
         for (User u : users) {
             u.setController(this);
         }
-        for (CardDeck deck : this.decks.values()) {
-            deck.shuffle();
-        }
     }
 
     /**
@@ -148,6 +215,134 @@ public class Controller {
         }
     }
 
+    /**
+     * @return The number of non-gold tokens in {@link #tokens}, counted from
+     *             scratch.
+     */
+    protected int countColoredTokens() {
+        int count = 0;
+        for (Color c : Color.values()) {
+            count += this.tokens.get(c.toTokenColor());
+        }
+        return count;
+    }
+
+    /**
+     * Move {@code amt} tokens of {@code color} from {@link #tokens} to
+     * {@code p}, keeping {@link #coloredTokens} up to date.
+     *
+     * @param p The {@link Player} receiving the tokens.
+     * @param color The {@link TokenColor} of the tokens.
+     * @param amt The number of tokens. Must be available.
+     */
+    private void bankToPlayer(Player p, TokenColor color, int amt) {
+        this.tokens.take(color, amt);
+        p.give(color, amt);
+        if (color != TokenColor.GOLD) {
+            this.coloredTokens -= amt;
+        }
+    }
+
+    /**
+     * Move {@code amt} tokens of {@code color} from {@code p} to
+     * {@link #tokens}, keeping {@link #coloredTokens} up to date.
+     *
+     * @param p The {@link Player} giving the tokens.
+     * @param color The {@link TokenColor} of the tokens.
+     * @param amt The number of tokens. Must be held by {@code p}.
+     */
+    private void playerToBank(Player p, TokenColor color, int amt) {
+        p.take(color, amt);
+        this.tokens.give(color, amt);
+        if (color != TokenColor.GOLD) {
+            this.coloredTokens += amt;
+        }
+    }
+
+    /**
+     * @return The seed of the game (or of the game it was copied from).
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Split off a new source of randomness from that of the game, e.g. for a
+     * {@link User}. Calls to this method in a fixed order (such as from
+     * {@link User#setController}) keep the game reproducible from its seed.
+     *
+     * @return A new {@link SplittableRandom}, to be used by a single thread.
+     */
+    public SplittableRandom splitRandom() {
+        return this.random.split();
+    }
+
+    /**
+     * Set the {@link Metrics} recording the latencies of the decisions of the
+     * {@link User}s, each under its own name ({@link User#toString()}).
+     * Copies of the {@link Controller} do not record metrics.
+     *
+     * @param metrics The {@link Metrics}, or {@code null} to record nothing.
+     */
+    public void setMetrics(Metrics metrics) {
+        List<String> names = new ArrayList<>();
+        for (User u : this.users) {
+            names.add(u.toString());
+        }
+        setMetrics(metrics, names);
+    }
+
+    /**
+     * Set the {@link Metrics} recording the latencies of the decisions of the
+     * {@link User}s, each under the given name (e.g. that of its entrant in a
+     * tournament, so that decisions are grouped by entrant across games).
+     * Copies of the {@link Controller} do not record metrics.
+     *
+     * @param metrics The {@link Metrics}, or {@code null} to record nothing.
+     * @param names The name of the {@link User} of each seat.
+     * @throws IllegalArgumentException If {@code names} does not have a name
+     *             for every seat.
+     */
+    public void setMetrics(Metrics metrics, List<String> names) {
+        if (names.size() != this.users.size()) {
+            throw new IllegalArgumentException(
+                    "names does not have the same size as users.");
+        }
+        this.metrics = metrics;
+        this.metricNames = names.toArray(new String[0]);
+    }
+
+    /**
+     * @return The current time (in nanoseconds) if {@link #metrics} are
+     *             recorded; 0 otherwise.
+     */
+    private long startTimer() {
+        return this.metrics != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the latency of a decision of the current user, if
+     * {@link #metrics} are recorded.
+     *
+     * @param start The time returned by {@link #startTimer()}.
+     */
+    private void stopTimer(long start) {
+        if (this.metrics != null) {
+            this.metrics.record(this.metricNames[this.currUserIdx], this.phase,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count an illegal decision of the current user, if {@link #metrics} are
+     * recorded.
+     */
+    private void countIllegal() {
+        if (this.metrics != null) {
+            this.metrics.countIllegal(this.metricNames[this.currUserIdx], this.phase);
+        }
+    }
+
     /**
      * @return The number of users in the game.
      */
@@ -160,8 +355,8 @@ public class Controller {
      */
     public List<ReadOnlyPlayer> players() {
         List<ReadOnlyPlayer> p = new ArrayList<>();
-        for (User u : this.users) {
-            p.add(player(u));
+        for (Player player : this.players) {
+            p.add(player);
         }
         return p;
     }
@@ -171,7 +366,7 @@ public class Controller {
      *             such player exists.
      */
     public ReadOnlyPlayer player() {
-        return this.players.get(this.users.get(this.currUserIdx));
+        return this.players[this.currUserIdx];
     }
 
     /**
@@ -180,7 +375,42 @@ public class Controller {
      *             {@code null} if no such player exists.
      */
     public ReadOnlyPlayer player(User user) {
-        return this.players.get(user);
+        int seat = seat(user);
+        return seat < 0 ? null : this.players[seat];
+    }
+
+    /**
+     * @param seat The (zero-based) seat of the player, in turn order.
+     * @return A read-only view of the player in {@code seat}.
+     * @throws IndexOutOfBoundsException If there is no such seat.
+     */
+    public ReadOnlyPlayer player(int seat) {
+        return this.players[seat];
+    }
+
+    /**
+     * @param seat The (zero-based) seat of the {@link User}, in turn order.
+     * @return The {@link User} in {@code seat}.
+     * @throws IndexOutOfBoundsException If there is no such seat.
+     */
+    public User user(int seat) {
+        return this.users.get(seat);
+    }
+
+    /**
+     * @param user The {@link User} to look for.
+     * @return The (zero-based) seat of {@code user}, in turn order, or -1 if
+     *             {@code user} is not in the game.
+     */
+    public int seat(User user) {
+        return this.users.indexOf(user);
+    }
+
+    /**
+     * @return The (zero-based) seat of the current player.
+     */
+    public int currentSeat() {
+        return this.currUserIdx;
     }
 
     /**
@@ -224,16 +454,18 @@ public class Controller {
         return this.nobles;
     }
 
+    /**
+     * @return The number of rounds that have passed.
+     */
+    public int rounds() {
+        return this.rounds;
+    }
+
     /**
      * @return Whether it is currently the final round.
      */
     public boolean finalRound() {
-        for (ReadOnlyPlayer p : this.players.values()) {
-            if (p.points() >= this.goal) {
-                return true;
-            }
-        }
-        return false;
+        return this.maxPoints >= this.goal;
     }
 
     /**
@@ -242,30 +474,29 @@ public class Controller {
      * @return {@code true} if nobody can make a move; {@code false} otherwise.
      */
     private boolean deadlock() {
-        for (Color c : Color.values()) {
-            if (tokens(c.toTokenColor()) > 0) {
-                return false;
-            }
+        if (this.coloredTokens > 0) {
+            return false;
         }
-        for (ReadOnlyPlayer p : this.players.values()) {
-            for (Noble n : nobles().contents()) {
-                if (n.satisfiedBy(p.cardGems())) {
-                    return false;
-                }
+        for (ReadOnlyPlayer p : this.players) {
+            if (this.nobles.satisfiedMask(p.packedCardGems()) != 0) {
+                return false;
             }
+            this.visible.clear();
             for (Card c : p.reserved()) {
-                if (p.canPurchase(unhide(c))) {
-                    return false;
-                }
+                this.visible.add(unhide(c));
             }
             for (ReadOnlyCardDeck d : this.decks.values()) {
                 if (!d.isDeckEmpty() && p.canReserve(d.peek())) {
                     return false;
                 }
-                for (Card c : d.display()) {
-                    if (p.canReserve(c) || p.canPurchase(c)) {
-                        return false;
-                    }
+                d.addDisplay(this.visible);
+            }
+            if (p.affordable(this.visible, null) != 0) {
+                return false;
+            }
+            for (int i = 0; i < this.visible.size(); ++i) {
+                if (p.canReserve(this.visible.card(i))) {
+                    return false;
                 }
             }
         }
@@ -276,6 +507,8 @@ public class Controller {
      * @return {@code true} if the game has ended; {@code false} otherwise.
      */
     public boolean gameOver() {
+        // Both conditions are maintained incrementally, so that the (costly)
+        // deadlock check only runs once the bank has no non-gold tokens left
         return this.currUserIdx == 0 && this.phase == Phase.MOVE
                 && (finalRound() || deadlock());
     }
@@ -310,13 +543,7 @@ public class Controller {
         if (!card.isHidden()) {
             return card;
         }
-        for (CardDeck deck : this.decks.values()) {
-            Card trueCard = deck.unhide(card);
-            if (!trueCard.isHidden()) {
-                return trueCard;
-            }
-        }
-        return card;
+        return this.decks.get(card.tier()).unhide(card);
     }
 
     /**
@@ -324,8 +551,8 @@ public class Controller {
      *
      * @return The winning {@link User}(s).
      */
-    Set<User> play() {
-        while (next()) {/**/}
+    public Set<User> play() {
+        while (playTurn()) {/**/}
         return getWinners();
     }
 
@@ -342,59 +569,179 @@ public class Controller {
             ++this.rounds;
         }
         User u = this.users.get(this.currUserIdx);
-        Player p = this.players.get(u);
+        Player p = this.players[this.currUserIdx];
         switch (this.phase) {
-            case MOVE: {
-                // Normal moves
-                String error = move(p, u.move());
-                while (error != null) {
-                    error = move(p, u.movePrevIllegal(error));
-                }
-                this.phase = Phase.DISCARD;
+            case MOVE:
+                playMove(u, p);
                 break;
-            }
-            case DISCARD: {
-                // Discard tokens
-                int extra = p.tokenCount() - MAX_TOKENS;
-                if (extra > 0) {
-                    String error = discard(p, extra, u.discard(extra));
-                    while (error != null) {
-                        error = discard(p, extra,
-                                u.discardPrevIllegal(extra, error));
-                    }
-                }
-                this.phase = Phase.VISIT;
+            case DISCARD:
+                playDiscard(u, p);
                 break;
-            }
-            case VISIT: {
-                // Noble visits
-                Set<Noble> visits = this.nobles.satisfied(p.cardGems());
-                if (!visits.isEmpty()) {
-                    Noble noble;
-                    if (visits.size() == 1) {
-                        noble = visits.iterator().next();
-                    } else {
-                        noble = u.chooseNoble(visits);
-                    }
-                    String error = nobleVisit(p, visits, noble);
-                    // One-noble visits must never error out!
-                    while (error != null) {
-                        noble = u.chooseNoblePrevIllegal(visits, error);
-                        error = nobleVisit(p, visits, u.chooseNoble(visits));
-                    }
-                    u.notifyNobleVisit(noble);
-                }
-                this.phase = Phase.MOVE;
-                ++this.currUserIdx;
-                this.currUserIdx %= numberOfUsers();
+            case VISIT:
+                playVisit(u, p);
                 break;
-            }
             default:
                 throw new InternalError("This is impossible!");
         }
         return true;
     }
 
+    /**
+     * Advance the game to the end of the current turn, i.e. play its remaining
+     * phases in one go. Equivalent to calling {@link #next()} until the next
+     * user is to make a normal move, but the (common) phases in which there is
+     * nothing to do are skipped without dispatching.
+     *
+     * @return {@code true} if the game was advanced; {@code false} otherwise.
+     */
+    protected boolean playTurn() {
+        if (gameOver()) {
+            return false;
+        }
+        if (this.currUserIdx == 0 && this.phase == Phase.MOVE) {
+            ++this.rounds;
+        }
+        User u = this.users.get(this.currUserIdx);
+        Player p = this.players[this.currUserIdx];
+        if (this.phase == Phase.MOVE) {
+            playMove(u, p);
+        }
+        if (this.phase == Phase.DISCARD) {
+            playDiscard(u, p);
+        }
+        playVisit(u, p);
+        return true;
+    }
+
+    /**
+     * Advance the game to the end of the current turn, like
+     * {@link #playTurn()}, but with the encoded {@code move} (see
+     * {@link MoveCode}) instead of asking the current user for one. The
+     * current user still makes the other decisions of the turn.
+     *
+     * @param move The code of the {@link Move} of the current user.
+     * @return {@code true} if the game was advanced; {@code false} otherwise.
+     * @throws IllegalArgumentException If the current turn has already
+     *             started, or {@code move} is illegal.
+     */
+    protected boolean playTurn(int move) {
+        if (this.phase != Phase.MOVE) {
+            throw new IllegalArgumentException(
+                    "The current turn has already started.");
+        }
+        if (gameOver()) {
+            return false;
+        }
+        if (this.currUserIdx == 0) {
+            ++this.rounds;
+        }
+        User u = this.users.get(this.currUserIdx);
+        Player p = this.players[this.currUserIdx];
+        Illegal error = move(p, move);
+        if (error != null) {
+            throw new IllegalArgumentException(error.message);
+        }
+        this.phase = Phase.DISCARD;
+        playDiscard(u, p);
+        playVisit(u, p);
+        return true;
+    }
+
+    /**
+     * Play the {@link Phase#MOVE} phase of the current turn.
+     *
+     * @param u The current {@link User}.
+     * @param p The {@link Player} of {@code u}.
+     */
+    private void playMove(User u, Player p) {
+        long start = startTimer();
+        Move move = u.move();
+        Illegal error = move(p, move);
+        while (error != null) {
+            countIllegal();
+            move = u.movePrevIllegal(message(error, move));
+            error = move(p, move);
+        }
+        stopTimer(start);
+        this.phase = Phase.DISCARD;
+    }
+
+    /**
+     * Render the reason {@code move} was rejected, for re-prompting a user.
+     * The game state must not have changed since {@code move} was rejected.
+     *
+     * @param error The reason {@code move} was rejected.
+     * @param move The rejected {@link Move}.
+     * @return The message of {@code error}, naming the offending
+     *             {@link Color} if {@code error} is {@link Illegal#NO_TOKENS}.
+     */
+    private String message(Illegal error, Move move) {
+        if (error == Illegal.NO_TOKENS) {
+            for (Color c : move.colors()) {
+                if (this.tokens.get(c.toTokenColor()) == 0) {
+                    return "There are no more " + c + " tokens.";
+                }
+            }
+        }
+        return error.message;
+    }
+
+    /**
+     * Play the {@link Phase#DISCARD} phase of the current turn.
+     *
+     * @param u The current {@link User}.
+     * @param p The {@link Player} of {@code u}.
+     */
+    private void playDiscard(User u, Player p) {
+        int extra = p.tokenCount() - MAX_TOKENS;
+        if (extra > 0) {
+            long start = startTimer();
+            Illegal error = discard(p, extra, u.discard(extra));
+            while (error != null) {
+                countIllegal();
+                error = discard(p, extra,
+                        u.discardPrevIllegal(extra, error.message));
+            }
+            stopTimer(start);
+        }
+        this.phase = Phase.VISIT;
+    }
+
+    /**
+     * Play the {@link Phase#VISIT} phase of the current turn, and pass the
+     * turn to the next user.
+     *
+     * @param u The current {@link User}.
+     * @param p The {@link Player} of {@code u}.
+     */
+    private void playVisit(User u, Player p) {
+        int satisfied = this.nobles.satisfiedMask(p.packedCardGems());
+        if (satisfied != 0) {
+            Set<Noble> visits = this.nobles.nobles(satisfied);
+            long start = startTimer();
+            Noble noble;
+            if (visits.size() == 1) {
+                noble = visits.iterator().next();
+            } else {
+                noble = u.chooseNoble(visits);
+            }
+            Illegal error = nobleVisit(p, visits, noble);
+            // One-noble visits must never error out!
+            while (error != null) {
+                countIllegal();
+                noble = u.chooseNoblePrevIllegal(visits, error.message);
+                error = nobleVisit(p, visits, noble);
+            }
+            if (visits.size() > 1) {
+                stopTimer(start);
+            }
+            u.notifyNobleVisit(noble);
+        }
+        this.phase = Phase.MOVE;
+        ++this.currUserIdx;
+        this.currUserIdx %= numberOfUsers();
+    }
+
     /**
      * @return The winning {@link User}(s) of the game, or {@code null} if the
      *             game is not over yet.
@@ -403,31 +750,47 @@ public class Controller {
         if (!gameOver()) {
             return null;
         }
-        // Get winners
+        int mask = winners();
+        Set<User> winners = new LinkedHashSet<>();
+        for (int i = 0; i < this.players.length; ++i) {
+            if ((mask & (1 << i)) != 0) {
+                winners.add(this.users.get(i));
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * @return The winning seats of the game, where bit {@code i} is set iff
+     *             seat {@code i} won, or 0 if the game is not over yet.
+     */
+    public int winners() {
+        if (!gameOver()) {
+            return 0;
+        }
         int maxPoints = this.goal;
-        Set<User> prewinners = new HashSet<>();
-        for (User u : this.users) {
-            ReadOnlyPlayer p = player(u);
-            int pts = p.points();
+        int prewinners = 0;
+        for (int i = 0; i < this.players.length; ++i) {
+            int pts = this.players[i].points();
             if (pts > maxPoints) {
                 maxPoints = pts;
-                prewinners.clear();
-                prewinners.add(u);
+                prewinners = 1 << i;
             } else if (pts == maxPoints) {
-                prewinners.add(u);
+                prewinners |= 1 << i;
             }
         }
         int minCards = Integer.MAX_VALUE;
-        Set<User> winners = new HashSet<>();
-        for (User u : prewinners) {
-            ReadOnlyPlayer p = player(u);
-            int size = p.owned().size();
+        int winners = 0;
+        for (int i = 0; i < this.players.length; ++i) {
+            if ((prewinners & (1 << i)) == 0) {
+                continue;
+            }
+            int size = this.players[i].owned().size();
             if (size < minCards) {
                 minCards = size;
-                winners.clear();
-                winners.add(u);
+                winners = 1 << i;
             } else if (size == minCards) {
-                winners.add(u);
+                winners |= 1 << i;
             }
         }
         return winners;
@@ -438,12 +801,12 @@ public class Controller {
      *
      * @param p The {@link Player} performing the {@link Move}.
      * @param move The {@link Move} of {@code p}.
-     * @return {@code null} if the move was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
      */
-    private String move(Player p, Move move) {
+    private Illegal move(Player p, Move move) {
         if (move == null) {
-            return "You are not allowed to return a null move.";
+            return Illegal.NULL_MOVE;
         }
         switch (move.type()) {
             case TAKE_THREE:
@@ -459,51 +822,146 @@ public class Controller {
         }
     }
 
+    /**
+     * Perform the {@link Move} encoded by {@code code} (see {@link MoveCode}).
+     *
+     * @param p The {@link Player} performing the {@link Move}.
+     * @param code The code of the {@link Move} of {@code p}.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
+     */
+    private Illegal move(Player p, int code) {
+        switch (MoveCode.type(code)) {
+            case TAKE_THREE:
+                return takeThree(p, MoveCode.colorMask(code));
+            case TAKE_TWO:
+                return takeTwo(p, MoveCode.color(code));
+            case RESERVE: {
+                Card card = card(p, code);
+                return card == null ? Illegal.CARD_UNAVAILABLE : reserve(p, card);
+            }
+            case PURCHASE: {
+                Card card = card(p, code);
+                return card == null
+                        ? Illegal.CARD_UNAVAILABLE
+                        : purchase(p, card, MoveCode.payment(code));
+            }
+            default:
+                throw new InternalError("This is impossible!");
+        }
+    }
+
+    /**
+     * @param p The {@link Player} whose reserved {@link Card}s to consider.
+     * @param code The code of a {@link Move} of type
+     *            {@link view.Move.Type#RESERVE} or
+     *            {@link view.Move.Type#PURCHASE}.
+     * @return The {@link Card} of {@code code}, i.e. the top card of a deck,
+     *             a card on display or a card reserved by {@code p} (unhidden,
+     *             as {@code p} knows it), or {@code null} if there is none.
+     */
+    private Card card(Player p, int code) {
+        if (MoveCode.type(code) == Move.Type.RESERVE && MoveCode.isHidden(code)) {
+            return this.decks.get(MoveCode.tier(code)).peek();
+        }
+        int id = MoveCode.cardId(code);
+        for (CardDeck deck : this.decks.values()) {
+            Card card = deck.displayed(id);
+            if (card != null) {
+                return card;
+            }
+        }
+        return p.reserved(id, this::unhide);
+    }
+
+    /**
+     * Decode {@code code} (see {@link MoveCode}) in the current position, for
+     * the current user.
+     *
+     * @param code The code of a {@link Move}.
+     * @return The {@link Move} of {@code code}. Its {@link Card} is
+     *             {@code null} if the card of {@code code} is neither the top
+     *             card of a deck, on display, nor reserved by the current
+     *             user.
+     */
+    public Move decode(int code) {
+        switch (MoveCode.type(code)) {
+            case TAKE_THREE:
+                return Move.takeThree(MoveCode.colorMask(code));
+            case TAKE_TWO:
+                return Move.takeTwo(MoveCode.color(code));
+            case RESERVE:
+                return Move.reserve(card(this.players[this.currUserIdx], code));
+            case PURCHASE:
+                return Move.purchase(card(this.players[this.currUserIdx], code),
+                        MoveCode.payment(code));
+            default:
+                throw new InternalError("This is impossible!");
+        }
+    }
+
     /**
      * Take (up to) three tokens of different colors and give them to {@code p}.
      *
      * @param p The {@link Player} in question.
      * @param colors The colors of the tokens in question.
-     * @return {@code null} if the move was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
      */
-    private String takeThree(Player p, Set<Color> colors) {
-        if (colors == null) {
-            return "You are not allowed to return a null color set.";
-        }
-        for (Color c : colors) {
-            if (c == null) {
-                return "You are not allowed to return a null color.";
+    private Illegal takeThree(Player p, Set<Color> colors) {
+        if (!this.trusted) {
+            if (colors == null) {
+                return Illegal.NULL_COLORS;
             }
-        }
-        Set<Color> avails = availableColors();
-        if (avails.size() < 3) {
-            if (!avails.equals(colors)) {
-                return "There are less than 3 colors available, so you must take exactly those colors.";
+            for (Color c : colors) {
+                if (c == null) {
+                    return Illegal.NULL_COLOR;
+                }
             }
-        } else if (colors.size() != 3) {
-            return "You must take exactly three colors.";
         }
-        for (Color c : colors) {
-            if (!avails.contains(c)) {
-                return "There are no more " + c.toString() + " tokens.";
+        return takeThree(p, MoveCode.mask(colors));
+    }
+
+    /**
+     * Take (up to) three tokens of different colors and give them to {@code p}.
+     *
+     * @param p The {@link Player} in question.
+     * @param colorMask The mask of the {@link Color} ordinals of the tokens in
+     *            question.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
+     */
+    private Illegal takeThree(Player p, int colorMask) {
+        if (!this.trusted) {
+            int avails = availableColors();
+            if (Integer.bitCount(avails) < 3) {
+                if (avails != colorMask) {
+                    return Illegal.NOT_COLORS_LEFT;
+                }
+            } else if (Integer.bitCount(colorMask) != 3) {
+                return Illegal.NOT_THREE_COLORS;
+            }
+            if ((colorMask & ~avails) != 0) {
+                return Illegal.NO_TOKENS;
             }
         }
-        for (Color c : colors) {
-            this.tokens.take(c.toTokenColor(), 1);
-            p.give(c.toTokenColor(), 1);
+        for (Color c : COLORS) {
+            if ((colorMask & 1 << c.ordinal()) != 0) {
+                bankToPlayer(p, c.toTokenColor(), 1);
+            }
         }
         return null;
     }
 
     /**
-     * @return A {@link Set} of the token {@link Color}s that are available.
+     * @return The mask of the ordinals of the token {@link Color}s that are
+     *             available.
      */
-    private Set<Color> availableColors() {
-        Set<Color> avails = EnumSet.noneOf(Color.class);
-        for (Color c : Color.values()) {
+    private int availableColors() {
+        int avails = 0;
+        for (Color c : COLORS) {
             if (this.tokens.get(c.toTokenColor()) > 0) {
-                avails.add(c);
+                avails |= 1 << c.ordinal();
             }
         }
         return avails;
@@ -514,19 +972,18 @@ public class Controller {
      *
      * @param p The {@link Player} in question.
      * @param color The colors of the tokens in question.
-     * @return {@code null} if the move was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
      */
-    private String takeTwo(Player p, Color color) {
-        if (color == null) {
-            return "You are not allowed to return a null color.";
+    private Illegal takeTwo(Player p, Color color) {
+        if (!this.trusted && color == null) {
+            return Illegal.NULL_COLOR;
         }
         TokenColor tc = color.toTokenColor();
-        if (this.tokens.get(tc) < 4) {
-            return "There are not enough tokens of that color.";
+        if (!this.trusted && this.tokens.get(tc) < 4) {
+            return Illegal.NOT_ENOUGH_TOKENS;
         }
-        this.tokens.take(tc, 2);
-        p.give(tc, 2);
+        bankToPlayer(p, tc, 2);
         return null;
     }
 
@@ -535,27 +992,27 @@ public class Controller {
      *
      * @param p The {@link Player} in question.
      * @param card The {@link Card} to reserve.
-     * @return {@code null} if the move was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
      */
-    private String reserve(Player p, Card card) {
-        if (card == null) {
-            return "You are not allowed to return a null card.";
-        }
-        if (!p.canReserve(card)) {
-            return "You cannot reserve this card.";
+    private Illegal reserve(Player p, Card card) {
+        if (!this.trusted) {
+            if (card == null) {
+                return Illegal.NULL_CARD;
+            }
+            if (!p.canReserve(card)) {
+                return Illegal.CANNOT_RESERVE;
+            }
         }
         CardDeck deck = this.decks.get(card.tier());
         if (deck.onDeck(card)) {
             deck.draw();
-        } else if (deck.inDisplay(card)) {
-            deck.take(card);
-        } else {
-            return "This card is not available.";
+        } else if (!deck.take(card)) {
+            return Illegal.CARD_UNAVAILABLE;
         }
         p.reserve(card);
-        if (this.tokens.take(TokenColor.GOLD, 1)) {
-            p.give(TokenColor.GOLD, 1);
+        if (this.tokens.get(TokenColor.GOLD) > 0) {
+            bankToPlayer(p, TokenColor.GOLD, 1);
         }
         return null;
     }
@@ -566,35 +1023,57 @@ public class Controller {
      * @param p The {@link Player} in question.
      * @param card The {@link Card} to purchase.
      * @param payment The tokens to buy {@code card} with.
-     * @return {@code null} if the move was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the move was legal and successful; the reason
+     *             it was illegal otherwise.
+     */
+    private Illegal purchase(Player p, Card card, ReadOnlyTokenSet payment) {
+        if (!this.trusted) {
+            Illegal error = validatePurchase(p, card, payment);
+            if (error != null) {
+                return error;
+            }
+        }
+        Card trueCard = unhide(card);
+        this.decks.get(trueCard.tier()).take(trueCard);
+        p.purchase(trueCard, payment);
+        this.tokens.give(payment);
+        this.coloredTokens += payment.size() - payment.get(TokenColor.GOLD);
+        this.maxPoints = Math.max(this.maxPoints, p.points());
+        return null;
+    }
+
+    /**
+     * Validate the purchase of {@code card} by {@code p}.
+     *
+     * @param p The {@link Player} in question.
+     * @param card The {@link Card} to purchase.
+     * @param payment The tokens to buy {@code card} with.
+     * @return {@code null} if the move is legal; the reason it is illegal
+     *             otherwise.
      */
-    private String purchase(Player p, Card card, ReadOnlyTokenSet payment) {
+    private Illegal validatePurchase(Player p, Card card,
+                                     ReadOnlyTokenSet payment) {
         if (card == null) {
-            return "You are not allowed to return a null card.";
+            return Illegal.NULL_CARD;
         }
         if (payment == null) {
-            return "You are not allowed to return a null payment.";
+            return Illegal.NULL_PAYMENT;
         }
-        CardDeck deck = this.decks.get(card.tier());
         if (!p.reserved().contains(card)) {
             if (card.isHidden()) {
-                return "You must reserve a hidden card before purchasing it.";
+                return Illegal.HIDDEN_PURCHASE;
             }
-            if (!deck.inDisplay(card)) {
-                return "This card is not available.";
+            if (!this.decks.get(card.tier()).inDisplay(card)) {
+                return Illegal.CARD_UNAVAILABLE;
             }
         }
         Card trueCard = unhide(card);
         if (!p.canPurchase(trueCard)) {
-            return "You cannot purchase this card.";
+            return Illegal.CANNOT_PURCHASE;
         }
         if (!p.canPurchase(trueCard, payment)) {
-            return "Your payment does not match the card's cost.";
+            return Illegal.WRONG_PAYMENT;
         }
-        deck.take(trueCard);
-        p.purchase(trueCard, payment);
-        this.tokens.give(payment);
         return null;
     }
 
@@ -605,24 +1084,23 @@ public class Controller {
      * @param p The {@link Player} that needs to discard tokens.
      * @param extra The number of tokens to discard.
      * @param discards The tokens to be discarded.
-     * @return {@code null} if the discard was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the discard was legal and successful; the
+     *             reason it was illegal otherwise.
      */
-    private String discard(Player p, int extra, ReadOnlyTokenSet discards) {
+    private Illegal discard(Player p, int extra, ReadOnlyTokenSet discards) {
         if (discards == null) {
-            return "You are not allowed to discard a null set.";
+            return Illegal.NULL_DISCARD;
         }
         if (discards.size() != extra) {
-            return "Incorrect number of tokens discarded.";
+            return Illegal.WRONG_DISCARD_COUNT;
         }
         if (!discards.dominatedBy(p.tokens())) {
-            return "You do not have enough tokens to discard.";
+            return Illegal.WRONG_DISCARD;
         }
         for (TokenColor c : TokenColor.values()) {
             int amt = discards.get(c);
             if (amt > 0) {
-                p.take(c, amt);
-                this.tokens.give(c, amt);
+                playerToBank(p, c, amt);
             }
         }
         return null;
@@ -634,18 +1112,19 @@ public class Controller {
      * @param p The {@link Player} to be visited.
      * @param visits The {@link Noble}s that wish to visit {@code p}.
      * @param n The visiting {@link Noble}.
-     * @return {@code null} if the visit was legal and successful; an error
-     *             message otherwise.
+     * @return {@code null} if the visit was legal and successful; the reason
+     *             it was illegal otherwise.
      */
-    private String nobleVisit(Player p, Set<Noble> visits, Noble n) {
+    private Illegal nobleVisit(Player p, Set<Noble> visits, Noble n) {
         if (n == null) {
-            return "You are not allowed to choose a null noble.";
+            return Illegal.NULL_NOBLE;
         }
         if (!visits.contains(n)) {
-            return "The noble you have chosen does not want you.";
+            return Illegal.WRONG_NOBLE;
         }
         this.nobles.take(n);
         p.visitedBy(n);
+        this.maxPoints = Math.max(this.maxPoints, p.points());
         return null;
     }
 
@@ -653,8 +1132,8 @@ public class Controller {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Players:\n\n");
-        for (User u : this.users) {
-            sb.append(u).append("\n").append(player(u)).append("\n");
+        for (int i = 0; i < this.players.length; ++i) {
+            sb.append(this.users.get(i)).append("\n").append(this.players[i]).append("\n");
         }
         sb.append("Decks:\n\n");
         for (Tier t : Tier.values()) {
@@ -672,8 +1151,8 @@ public class Controller {
     public String compressedData() {
         StringBuilder sb = new StringBuilder();
         sb.append("Players\n");
-        for (User u : this.users) {
-            sb.append(u).append(" ").append(player(u).points()).append("\n");
+        for (int i = 0; i < this.players.length; ++i) {
+            sb.append(this.users.get(i)).append(" ").append(this.players[i].points()).append("\n");
         }
         sb.append("Decks\n");
         for (Tier t : Tier.values()) {
@@ -0,0 +1,67 @@
+package controller;
+
+import view.User;
+
+/**
+ * The reasons a decision of a {@link User} can be rejected by the
+ * {@link Controller}. The {@link Controller} validates decisions against these
+ * codes (a legal decision has no code, i.e. {@code null}), and only renders
+ * the {@link #message} of a code when it has to re-prompt the {@link User}.
+ */
+public enum Illegal {
+
+    /** The move is null. */
+    NULL_MOVE("You are not allowed to return a null move."),
+    /** The color set of a move is null. */
+    NULL_COLORS("You are not allowed to return a null color set."),
+    /** A color of a move is null. */
+    NULL_COLOR("You are not allowed to return a null color."),
+    /** Fewer than three colors are left, and they were not all taken. */
+    NOT_COLORS_LEFT("There are less than 3 colors available, so you must take exactly those colors."),
+    /** Three colors are left, but not exactly three were taken. */
+    NOT_THREE_COLORS("You must take exactly three colors."),
+    /**
+     * A color taken has no tokens left. The {@link Controller} names the
+     * color when it re-prompts the {@link User}.
+     */
+    NO_TOKENS("There are no more tokens of one of those colors."),
+    /** Two tokens of a color with less than four tokens were taken. */
+    NOT_ENOUGH_TOKENS("There are not enough tokens of that color."),
+    /** The card of a move is null. */
+    NULL_CARD("You are not allowed to return a null card."),
+    /** The player cannot reserve the card. */
+    CANNOT_RESERVE("You cannot reserve this card."),
+    /** The card is neither on display nor on top of its deck. */
+    CARD_UNAVAILABLE("This card is not available."),
+    /** The payment of a move is null. */
+    NULL_PAYMENT("You are not allowed to return a null payment."),
+    /** A hidden card was purchased without being reserved first. */
+    HIDDEN_PURCHASE("You must reserve a hidden card before purchasing it."),
+    /** The player cannot afford the card. */
+    CANNOT_PURCHASE("You cannot purchase this card."),
+    /** The payment does not match the cost of the card. */
+    WRONG_PAYMENT("Your payment does not match the card's cost."),
+    /** The discarded tokens are null. */
+    NULL_DISCARD("You are not allowed to discard a null set."),
+    /** The wrong number of tokens was discarded. */
+    WRONG_DISCARD_COUNT("Incorrect number of tokens discarded."),
+    /** Tokens the player does not have were discarded. */
+    WRONG_DISCARD("You do not have enough tokens to discard."),
+    /** The chosen noble is null. */
+    NULL_NOBLE("You are not allowed to choose a null noble."),
+    /** The chosen noble is not one of the visiting nobles. */
+    WRONG_NOBLE("The noble you have chosen does not want you.");
+
+    /** The message explaining the reason to a {@link User}. */
+    public final String message;
+
+    /**
+     * Create a reason.
+     *
+     * @param message The message explaining the reason to a {@link User}.
+     */
+    private Illegal(String message) {
+        this.message = message;
+    }
+
+}
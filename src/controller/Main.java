@@ -1,5 +1,7 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -10,7 +12,19 @@ import ai.MCTSv0AI;
 import ai.MCTSv1AI;
 import ai.MCTSv2AI;
 import ai.MCTSv3AI;
+import ai.MCTSv4AI;
+import ai.MCTSv5AI;
+import ai.MCTSv6AI;
 import ai.WillAI;
+import tournament.Entrant;
+import tournament.Matchup;
+import tournament.Ratings;
+import tournament.ResultLogWriter;
+import tournament.ScoreInterval;
+import tournament.Sprt;
+import tournament.Standings;
+import tournament.StoppingRule;
+import tournament.Tournament;
 import view.HumanCLI;
 import view.User;
 
@@ -29,8 +43,16 @@ public final class Main {
         try {
             boolean debug = false;
             int goal = 15;
-            int usersCount = 0;
-            List<User> users = new ArrayList<>();
+            int games = 0;
+            int threads = Runtime.getRuntime().availableProcessors();
+            double[] sprt = null;
+            double ci = 0;
+            boolean rotate = false;
+            int ratingsEvery = 0;
+            String binary = null;
+            Long seed = null;
+            Metrics metrics = null;
+            List<Entrant> lineup = new ArrayList<>();
             for (int i = 0; i < args.length; ++i) {
                 switch (args[i]) {
                     case "-d":
@@ -48,51 +70,145 @@ public final class Main {
                     case "--goal":
                         goal = Integer.parseInt(args[++i]);
                         break;
-                    case "Human":
-                        users.add(new HumanCLI("Player " + ++usersCount + ": Human"));
+                    case "-n":
+                    case "-games":
+                    case "--games":
+                        games = Integer.parseInt(args[++i]);
+                        if (games <= 0) {
+                            throw new IllegalArgumentException("The number of games must be positive.");
+                        }
+                        break;
+                    case "-t":
+                    case "-threads":
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        if (threads <= 0) {
+                            throw new IllegalArgumentException("The number of threads must be positive.");
+                        }
                         break;
-                    case "ArthurAI":
-                        users.add(new ArthurAI(debug, "Player " + ++usersCount + ": ArthurAI"));
+                    case "--sprt":
+                        sprt = new double[] {
+                                Double.parseDouble(args[++i]),
+                                Double.parseDouble(args[++i]),
+                                Double.parseDouble(args[++i]),
+                                Double.parseDouble(args[++i]) };
                         break;
-                    case "DefaultAI":
-                        users.add(new DefaultAI(debug, "Player " + ++usersCount + ": DefaultAI"));
+                    case "--rotate":
+                        rotate = true;
                         break;
-                    case "MCTSv0AI":
-                        users.add(new MCTSv0AI(debug,
-                                "Player " + ++usersCount + ": MCTSv0AI",
-                                Integer.parseInt(args[++i])));
+                    case "--ci":
+                        ci = Double.parseDouble(args[++i]);
+                        if (ci <= 0) {
+                            throw new IllegalArgumentException("The interval half-width must be positive.");
+                        }
                         break;
-                    case "MCTSv1AI":
-                        users.add(new MCTSv1AI(debug,
-                                "Player " + ++usersCount + ": MCTSv1AI",
-                                Integer.parseInt(args[++i])));
+                    case "-s":
+                    case "-seed":
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
                         break;
-                    case "MCTSv2AI":
-                        users.add(new MCTSv2AI(debug,
-                                "Player " + ++usersCount + ": MCTSv2AI",
-                                Integer.parseInt(args[++i])));
+                    case "-b":
+                    case "-binary":
+                    case "--binary":
+                        binary = args[++i];
                         break;
-                    case "MCTSv3AI":
-                        users.add(new MCTSv3AI(debug,
-                                "Player " + ++usersCount + ": MCTSv3AI",
-                                Integer.parseInt(args[++i])));
+                    case "-m":
+                    case "-metrics":
+                    case "--metrics":
+                        metrics = new Metrics();
                         break;
-                    case "WillAI":
-                        users.add(new WillAI(debug, "Player " + ++usersCount + ": WillAI"));
+                    case "--ratings":
+                        ratingsEvery = Integer.parseInt(args[++i]);
+                        if (ratingsEvery <= 0) {
+                            throw new IllegalArgumentException("The ratings interval must be positive.");
+                        }
                         break;
                     default:
-                        throw new IllegalArgumentException("'" + args[i] + "' is not a valid option.");
+                        i = parseEntrant(args, i, debug, lineup);
+                        break;
                 }
             }
             if (goal <= 0) {
                 throw new IllegalArgumentException("The goal must be positive.");
             }
-            if (usersCount < 2 || usersCount > 4) {
+            if (lineup.size() < 2 || lineup.size() > 4) {
                 throw new IllegalArgumentException("Splendor is for 2-4 players only.");
             }
-            controller = new Controller(goal, users);
+            if ((sprt != null || ci > 0) && games <= 0) {
+                throw new IllegalArgumentException("Early stopping needs a maximum number of games.");
+            }
+            if (rotate && games <= 0) {
+                throw new IllegalArgumentException("Rotating seats needs a number of games.");
+            }
+            if (sprt != null && ci > 0) {
+                throw new IllegalArgumentException("Only one of --sprt and --ci may be given.");
+            }
+            if (binary != null && games <= 0) {
+                throw new IllegalArgumentException("Binary results need a number of games.");
+            }
+            if (games > 0) {
+                Tournament tournament = seed != null
+                        ? new Tournament(goal, lineup, games, threads, seed)
+                        : new Tournament(goal, lineup, games, threads);
+                Standings standings = new Standings(lineup);
+                tournament.addListener(r -> System.out.print(r));
+                tournament.addListener(standings);
+                Ratings ratings = new Ratings();
+                if (ratingsEvery > 0) {
+                    int every = ratingsEvery;
+                    tournament.addListener(ratings);
+                    tournament.addListener(r -> {
+                        if (ratings.games() % every == 0) {
+                            System.err.print(ratings);
+                        }
+                    });
+                }
+                StoppingRule rule = null;
+                if (sprt != null) {
+                    rule = new Sprt(new Matchup(0, 1), sprt[0], sprt[1], sprt[2], sprt[3]);
+                } else if (ci > 0) {
+                    rule = new ScoreInterval(new Matchup(0, 1), 1.96, ci, 100);
+                }
+                tournament.setStoppingRule(rule);
+                // A test of one type against another must not favour a seat
+                tournament.setRotation(rotate || rule != null);
+                tournament.setMetrics(metrics);
+                long start = System.nanoTime();
+                if (binary != null) {
+                    try (ResultLogWriter log = new ResultLogWriter(Path.of(binary))) {
+                        tournament.addListener(log);
+                        tournament.run();
+                    }
+                } else {
+                    tournament.run();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.flush();
+                System.err.print(standings);
+                if (rule != null) {
+                    System.err.println(rule);
+                }
+                if (ratingsEvery > 0) {
+                    System.err.print(ratings);
+                }
+                if (metrics != null) {
+                    System.err.print(metrics);
+                }
+                System.err.println(String.format("Games per second: %.2f",
+                        standings.games() / seconds));
+                return;
+            }
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < lineup.size(); ++i) {
+                users.add(lineup.get(i).create(i));
+            }
+            controller = seed != null
+                    ? new Controller(goal, users, seed)
+                    : new Controller(goal, users);
+            controller.setMetrics(metrics);
             Set<User> winners = controller.play();
             if (debug) {
+                System.out.println("Seed: " + controller.seed() + "\n");
                 System.out.println("End state:\n");
                 System.out.println(controller);
                 System.out.println("Winner(s): " + winners);
@@ -103,26 +219,122 @@ public final class Main {
                     System.out.println(u);
                 }
             }
+            if (metrics != null) {
+                System.out.flush();
+                System.err.print(metrics);
+            }
         } catch (IllegalArgumentException e) {
             System.out.println(e.getMessage());
             printUsage();
             return;
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         } catch (Exception e) {
             System.out.println(controller);
             throw e;
         }
     }
 
+    /**
+     * Parse the {@link Entrant} at {@code args[i]} and add it to
+     * {@code lineup}.
+     *
+     * @param args Command-line arguments.
+     * @param i The index of the type of the {@link Entrant} in {@code args}.
+     * @param debug Whether the {@link Entrant}'s AIs print output.
+     * @param lineup The {@link Entrant}s parsed so far.
+     * @return The index of the last argument consumed.
+     * @throws IllegalArgumentException If {@code args[i]} is not a valid type.
+     */
+    private static int parseEntrant(String[] args, int i, boolean debug,
+                                    List<Entrant> lineup) {
+        String type = args[i];
+        switch (type) {
+            case "Human":
+                lineup.add(new Entrant(type,
+                        seat -> new HumanCLI("Player " + (seat + 1) + ": Human")));
+                return i;
+            case "ArthurAI":
+                lineup.add(new Entrant(type,
+                        seat -> new ArthurAI(debug, "Player " + (seat + 1) + ": ArthurAI")));
+                return i;
+            case "DefaultAI":
+                lineup.add(new Entrant(type,
+                        seat -> new DefaultAI(debug, "Player " + (seat + 1) + ": DefaultAI")));
+                return i;
+            case "WillAI":
+                lineup.add(new Entrant(type,
+                        seat -> new WillAI(debug, "Player " + (seat + 1) + ": WillAI")));
+                return i;
+            default:
+                break;
+        }
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("'" + type + "' is not a valid option.");
+        }
+        int timeout = Integer.parseInt(args[i + 1]);
+        String name = type + " " + timeout;
+        switch (type) {
+            case "MCTSv0AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv0AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv0AI", timeout)));
+                return i + 1;
+            case "MCTSv1AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv1AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv1AI", timeout)));
+                return i + 1;
+            case "MCTSv2AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv2AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv2AI", timeout)));
+                return i + 1;
+            case "MCTSv3AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv3AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv3AI", timeout)));
+                return i + 1;
+            case "MCTSv4AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv4AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv4AI", timeout)));
+                return i + 1;
+            case "MCTSv5AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv5AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv5AI", timeout)));
+                return i + 1;
+            case "MCTSv6AI":
+                lineup.add(new Entrant(name, seat -> new MCTSv6AI(debug,
+                        "Player " + (seat + 1) + ": MCTSv6AI", timeout)));
+                return i + 1;
+            default:
+                throw new IllegalArgumentException("'" + type + "' is not a valid option.");
+        }
+    }
+
     /** Prints details on how to use this program. */
     private static void printUsage() {
         System.out.println("Usage:\n"
-                         + "    java -jar <THIS_JAR> [-dD] [-g <goal>] <type> <type> [type] [type]\n"
+                         + "    java -jar <THIS_JAR> [-dD] [-g <goal>] [-s <seed>] [-m] [-n <games> [-t <threads>] [--rotate] [--sprt <elo0> <elo1> <alpha> <beta> | --ci <width>] [--ratings <every>] [-b <file>]] <type> <type> [type] [type]\n"
                          + "Where:\n"
                          + "    (-d) is to enable debug output\n"
                          + "    (-D) is to disable debug output\n"
                          + "    (goal) is the number of points needed to win\n"
+                         + "    (seed) makes the game(s) reproducible (with AIs that are not time-limited)\n"
+                         + "    (-m) prints latency metrics of the decisions of each player\n"
+                         + "    (games) is the number of games to play in this JVM (default: a single game)\n"
+                         + "    (--rotate) rotates the seats of the types from one game to the next (implied\n"
+                         + "        by --sprt and --ci)\n"
+                         + "    (threads) is the number of threads to play them on (default: number of cores)\n"
+                         + "    (--sprt) stops once a sequential probability ratio test of the Elo of the\n"
+                         + "        first type over the second accepts elo0 or elo1, with error rates alpha and beta\n"
+                         + "    (--ci) stops after 100+ games once the 95% interval of the score of the first\n"
+                         + "        type over the second is within +/- width, or excludes an even score\n"
+                         + "    (--ratings) prints Bradley-Terry ratings of the entrants every (every) games\n"
+                         + "    (file) is a binary log to append the result of every game to, whose lineups\n"
+                         + "        are listed in (file).lineups\n"
                          + "    (type) is one of:\n"
-                         + "        Human | ArthurAI | DefaultAI | MCTSv[0-3]AI <timeout (seconds)> | WillAI");
+                         + "        Human | ArthurAI | DefaultAI | MCTSv[0-6]AI <timeout (seconds)> | WillAI");
     }
 
 }
@@ -0,0 +1,161 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import controller.Controller.Phase;
+import util.Histogram;
+import view.User;
+
+/**
+ * Latency metrics of the decisions of the {@link User}s of one or more games,
+ * recorded by a {@link Controller} (see {@link Controller#setMetrics}). The
+ * decisions are grouped by the name the {@link Controller} gives the deciding
+ * {@link User} (e.g. the name of its entrant in a tournament), so that a row
+ * only ever holds the decisions of one kind of {@link User}, whatever its
+ * seats. For each name and {@link Phase} in which the {@link User} was asked
+ * for a decision, the time taken by the phase (including retries) is recorded
+ * in a {@link Histogram}, and the number of illegal decisions that had to be
+ * retried is counted.
+ * <p>
+ * Not thread-safe; merge the metrics of different threads with
+ * {@link #add(Metrics)}.
+ */
+public final class Metrics {
+
+    /** The number of {@link Phase}s. */
+    private static final int PHASES = Phase.values().length;
+
+    /** The index of the row of each name. */
+    private final Map<String, Integer> rows = new HashMap<>();
+    /** The name of each row (in order of first decision). */
+    private final List<String> names = new ArrayList<>();
+    /** The latencies of each row and {@link Phase} (in nanoseconds). */
+    private final List<Histogram[]> latencies = new ArrayList<>();
+    /** The number of illegal decisions of each row and {@link Phase}. */
+    private final List<long[]> illegal = new ArrayList<>();
+
+    /**
+     * @param name The name of the deciding {@link User}s.
+     * @return The index of the row of {@code name}, which is added if needed.
+     */
+    private int row(String name) {
+        Integer row = this.rows.get(name);
+        if (row == null) {
+            Histogram[] h = new Histogram[PHASES];
+            for (int i = 0; i < PHASES; ++i) {
+                h[i] = new Histogram();
+            }
+            row = this.names.size();
+            this.rows.put(name, row);
+            this.names.add(name);
+            this.latencies.add(h);
+            this.illegal.add(new long[PHASES]);
+        }
+        return row;
+    }
+
+    /**
+     * Record the latency of a decision.
+     *
+     * @param name The name of the deciding {@link User}.
+     * @param phase The {@link Phase} of the decision.
+     * @param nanos The time taken by the decision (in nanoseconds).
+     */
+    void record(String name, Phase phase, long nanos) {
+        this.latencies.get(row(name))[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Count an illegal decision.
+     *
+     * @param name The name of the deciding {@link User}.
+     * @param phase The {@link Phase} of the decision.
+     */
+    void countIllegal(String name, Phase phase) {
+        ++this.illegal.get(row(name))[phase.ordinal()];
+    }
+
+    /**
+     * @return The names with metrics (in order of first decision).
+     */
+    public List<String> names() {
+        return Collections.unmodifiableList(this.names);
+    }
+
+    /**
+     * @param name The name to query.
+     * @param phase The {@link Phase} to query.
+     * @return The latencies (in nanoseconds) of the decisions of {@code name}
+     *             in {@code phase}. Must not be modified.
+     * @throws IllegalArgumentException If {@code name} has no metrics.
+     */
+    public Histogram latencies(String name, Phase phase) {
+        return this.latencies.get(index(name))[phase.ordinal()];
+    }
+
+    /**
+     * @param name The name to query.
+     * @param phase The {@link Phase} to query.
+     * @return The number of illegal decisions of {@code name} in
+     *             {@code phase}.
+     * @throws IllegalArgumentException If {@code name} has no metrics.
+     */
+    public long illegal(String name, Phase phase) {
+        return this.illegal.get(index(name))[phase.ordinal()];
+    }
+
+    /**
+     * @param name The name to query.
+     * @return The index of the row of {@code name}.
+     * @throws IllegalArgumentException If {@code name} has no metrics.
+     */
+    private int index(String name) {
+        Integer row = this.rows.get(name);
+        if (row == null) {
+            throw new IllegalArgumentException("'" + name + "' has no metrics.");
+        }
+        return row;
+    }
+
+    /**
+     * Add all the metrics of {@code other} to {@code this}, name by name.
+     *
+     * @param other The {@link Metrics} to add.
+     */
+    public void add(Metrics other) {
+        for (int o = 0; o < other.names.size(); ++o) {
+            int r = row(other.names.get(o));
+            for (int i = 0; i < PHASES; ++i) {
+                this.latencies.get(r)[i].add(other.latencies.get(o)[i]);
+                this.illegal.get(r)[i] += other.illegal.get(o)[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s %-8s %8s %10s %10s %10s %10s %10s %8s%n",
+                "Latency (us)", "Phase", "Count", "Mean", "p50", "p99",
+                "p99.9", "Max", "Illegal"));
+        for (int r = 0; r < this.names.size(); ++r) {
+            for (Phase phase : Phase.values()) {
+                Histogram h = this.latencies.get(r)[phase.ordinal()];
+                long ill = this.illegal.get(r)[phase.ordinal()];
+                if (h.count() == 0 && ill == 0) {
+                    continue;
+                }
+                sb.append(String.format("%-24s %-8s %8d %10.1f %10.1f %10.1f %10.1f %10.1f %8d%n",
+                        this.names.get(r), phase, h.count(), h.mean() / 1e3,
+                        h.valueAt(50) / 1e3, h.valueAt(99) / 1e3,
+                        h.valueAt(99.9) / 1e3, h.max() / 1e3, ill));
+            }
+        }
+        return sb.toString();
+    }
+
+}
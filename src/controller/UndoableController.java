@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import model.cards.CardDeck;
 import model.gems.ReadOnlyTokenSet;
@@ -37,6 +38,18 @@ public final class UndoableController extends Controller implements Undoable {
         super(goal, users);
     }
 
+    /**
+     * Create a new instance of the game. Play begins from the first
+     * {@link User} in {@code users} and proceeds sequentially.
+     *
+     * @param goal The number of points needed to win.
+     * @param users The {@link User}s in the game.
+     * @param seed The seed of the game.
+     */
+    public UndoableController(int goal, List<? extends User> users, long seed) {
+        super(goal, users, seed);
+    }
+
     /**
      * Create a copy of {@code controller} but with the internal list of users
      * replaced by {@code users} and the decks shuffled. If {@code controller}
@@ -51,6 +64,22 @@ public final class UndoableController extends Controller implements Undoable {
         super(controller, users);
     }
 
+    /**
+     * Create a copy of {@code controller} but with the internal list of users
+     * replaced by {@code users} and the decks shuffled. If {@code controller}
+     * is an {@link UndoableController}, its history is not copied.
+     *
+     * @param controller The {@link Controller} to copy.
+     * @param users The {@link User}s in the game.
+     * @param random The source of all randomness of the copy.
+     * @throws IllegalArgumentException if {@code users} does not have the same
+     *             size as {@code controller.users}.
+     */
+    public UndoableController(Controller controller, List<? extends User> users,
+                              SplittableRandom random) {
+        super(controller, users, random);
+    }
+
     @Override
     public Set<User> play() {
         return super.play();
@@ -61,6 +90,32 @@ public final class UndoableController extends Controller implements Undoable {
         return super.next();
     }
 
+    @Override
+    public boolean playTurn() {
+        return super.playTurn();
+    }
+
+    @Override
+    public boolean playTurn(int move) {
+        return super.playTurn(move);
+    }
+
+    /**
+     * Set whether the moves are trusted to be legal, in which case they are
+     * not validated again. Only trust a controller whose moves all come from
+     * a legal move generator, i.e. that is only advanced with
+     * {@link #playTurn(int)} and generated codes; moves chosen by the users
+     * themselves (as in {@link #play()}) should stay validated. Discards and
+     * noble choices are always validated. The game state is undefined if a
+     * trusted move is illegal. Copies of an {@link UndoableController} are
+     * not trusted.
+     *
+     * @param trusted Whether the moves are trusted.
+     */
+    public void setTrusted(boolean trusted) {
+        this.trusted = trusted;
+    }
+
     @Override
     public Action mark() {
         Action mark = new Action();
@@ -82,13 +137,20 @@ public final class UndoableController extends Controller implements Undoable {
         private final int currUserIdxMark;
         /** {@link UndoableController#phase} at creation of {@link Action}. */
         private final Phase phaseMark;
+        /** {@link UndoableController#maxPoints} at creation of {@link Action}. */
+        private final int maxPointsMark;
+        /**
+         * {@link UndoableController#coloredTokens} at creation of
+         * {@link Action}.
+         */
+        private final int coloredTokensMark;
 
         /**
          * Create a marker {@link Action}.
          */
         private Action() {
             UndoableController uc = UndoableController.this;
-            for (Player p : uc.players.values()) {
+            for (Player p : uc.players) {
                 this.marks.add(p.mark());
             }
             for (CardDeck deck : uc.decks.values()) {
@@ -99,6 +161,8 @@ public final class UndoableController extends Controller implements Undoable {
             this.roundsMark = uc.rounds;
             this.currUserIdxMark = uc.currUserIdx;
             this.phaseMark = uc.phase;
+            this.maxPointsMark = uc.maxPoints;
+            this.coloredTokensMark = uc.coloredTokens;
         }
 
         @Override
@@ -117,6 +181,8 @@ public final class UndoableController extends Controller implements Undoable {
             uc.rounds = this.roundsMark;
             uc.currUserIdx = this.currUserIdxMark;
             uc.phase = this.phaseMark;
+            uc.maxPoints = this.maxPointsMark;
+            uc.coloredTokens = this.coloredTokensMark;
             return true;
         }
 
@@ -6,6 +6,19 @@ import model.gems.ReadOnlyGemSet;
 /** A representation of a card. */
 public interface Card {
 
+    /** The largest possible identifier of a {@link Card}. */
+    public static final int MAX_ID = 127;
+    /** The identifier of every hidden {@link Card}. */
+    public static final int HIDDEN_ID = -1;
+
+    /**
+     * @return The identifier of the {@link Card}, between 0 and
+     *             {@link #MAX_ID}, which is unique among the {@link Card}s of
+     *             a game, or {@link #HIDDEN_ID} if the {@link Card} is hidden
+     *             (so that it does not give away the {@link Card} it hides).
+     */
+    public int id();
+
     /**
      * @return The number of prestige points the {@link Card} is worth.
      */
@@ -33,6 +46,12 @@ public interface Card {
      */
     public ReadOnlyGemSet cost();
 
+    /**
+     * @return The cost of the {@link Card} in packed form (see
+     *             {@link model.gems.PackedGems}).
+     */
+    public long packedCost();
+
     /**
      * @return {@code true} if the {@link Card} is hidden.
      */
@@ -1,18 +1,19 @@
 package model.cards;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
 
 import model.gems.Color;
 import util.Marker;
+import util.Shuffle;
 import util.Undoable;
 
 /** A representation of a deck of {@link Card}s. */
@@ -21,120 +22,117 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
     /** The maximum number of {@link Card}s on {@link #display}. */
     public static final int DISPLAY_CAP = 4;
 
-    /** Map from {@link Tier}s to default card lists of that tier. */
-    private static final Map<Tier, List<CardImpl>> defaultDeck = new EnumMap<>(Tier.class);
-
     /** Default {@link Tier#LOW} {@link CardDeck}. */
-    private static final List<CardImpl> defaultLow = Arrays.asList(new CardImpl[] {
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 0, 3, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 0, 0, 0, 0, 3 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 0, 3, 0, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 3, 0, 0, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 0, 0, 0, 3, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 2, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 0, 0, 1, 2, 0 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 0, 0, 0, 1, 2 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 2, 0, 0, 0, 1 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 1, 2, 0, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 0, 2, 0, 2 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 0, 2, 0, 0, 2 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 0, 2, 0, 2, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 2, 0, 2, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 2, 0, 0, 2, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 1, 1, 1 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 1, 0, 1, 1, 1 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 1, 1, 0, 1, 1 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 1, 1, 1, 0, 1 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 1, 1, 1, 1, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 0, 2, 2 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 2, 0, 1, 0, 2 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 2, 2, 0, 1, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 0, 2, 2, 0, 1 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 1, 0, 2, 2, 0 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 1, 3, 1, 0, 0 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 3, 1, 0, 0, 1 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 0, 0, 1, 3, 1 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 0, 1, 3, 1, 0 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 1, 0, 0, 1, 3 }),
-            new CardImpl(0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 1, 2, 1 }),
-            new CardImpl(0, Tier.LOW , Color.RED  , new int[] { 1, 0, 1, 1, 2 }),
-            new CardImpl(0, Tier.LOW , Color.GREEN, new int[] { 2, 1, 0, 1, 1 }),
-            new CardImpl(0, Tier.LOW , Color.BLUE , new int[] { 1, 2, 1, 0, 1 }),
-            new CardImpl(0, Tier.LOW , Color.WHITE, new int[] { 1, 1, 2, 1, 0 }),
-            new CardImpl(1, Tier.LOW , Color.BROWN, new int[] { 0, 0, 0, 4, 0 }),
-            new CardImpl(1, Tier.LOW , Color.RED  , new int[] { 0, 0, 0, 0, 4 }),
-            new CardImpl(1, Tier.LOW , Color.GREEN, new int[] { 4, 0, 0, 0, 0 }),
-            new CardImpl(1, Tier.LOW , Color.BLUE , new int[] { 0, 4, 0, 0, 0 }),
-            new CardImpl(1, Tier.LOW , Color.WHITE, new int[] { 0, 0, 4, 0, 0 }) });
+    private static final List<CardImpl> defaultLow = List.of(
+            new CardImpl( 0, 0, Tier.LOW , Color.BROWN, new int[] { 0, 0, 3, 0, 0 }),
+            new CardImpl( 1, 0, Tier.LOW , Color.RED  , new int[] { 0, 0, 0, 0, 3 }),
+            new CardImpl( 2, 0, Tier.LOW , Color.GREEN, new int[] { 0, 3, 0, 0, 0 }),
+            new CardImpl( 3, 0, Tier.LOW , Color.BLUE , new int[] { 3, 0, 0, 0, 0 }),
+            new CardImpl( 4, 0, Tier.LOW , Color.WHITE, new int[] { 0, 0, 0, 3, 0 }),
+            new CardImpl( 5, 0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 2, 0, 0 }),
+            new CardImpl( 6, 0, Tier.LOW , Color.RED  , new int[] { 0, 0, 1, 2, 0 }),
+            new CardImpl( 7, 0, Tier.LOW , Color.GREEN, new int[] { 0, 0, 0, 1, 2 }),
+            new CardImpl( 8, 0, Tier.LOW , Color.BLUE , new int[] { 2, 0, 0, 0, 1 }),
+            new CardImpl( 9, 0, Tier.LOW , Color.WHITE, new int[] { 1, 2, 0, 0, 0 }),
+            new CardImpl(10, 0, Tier.LOW , Color.BROWN, new int[] { 0, 0, 2, 0, 2 }),
+            new CardImpl(11, 0, Tier.LOW , Color.RED  , new int[] { 0, 2, 0, 0, 2 }),
+            new CardImpl(12, 0, Tier.LOW , Color.GREEN, new int[] { 0, 2, 0, 2, 0 }),
+            new CardImpl(13, 0, Tier.LOW , Color.BLUE , new int[] { 2, 0, 2, 0, 0 }),
+            new CardImpl(14, 0, Tier.LOW , Color.WHITE, new int[] { 2, 0, 0, 2, 0 }),
+            new CardImpl(15, 0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 1, 1, 1 }),
+            new CardImpl(16, 0, Tier.LOW , Color.RED  , new int[] { 1, 0, 1, 1, 1 }),
+            new CardImpl(17, 0, Tier.LOW , Color.GREEN, new int[] { 1, 1, 0, 1, 1 }),
+            new CardImpl(18, 0, Tier.LOW , Color.BLUE , new int[] { 1, 1, 1, 0, 1 }),
+            new CardImpl(19, 0, Tier.LOW , Color.WHITE, new int[] { 1, 1, 1, 1, 0 }),
+            new CardImpl(20, 0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 0, 2, 2 }),
+            new CardImpl(21, 0, Tier.LOW , Color.RED  , new int[] { 2, 0, 1, 0, 2 }),
+            new CardImpl(22, 0, Tier.LOW , Color.GREEN, new int[] { 2, 2, 0, 1, 0 }),
+            new CardImpl(23, 0, Tier.LOW , Color.BLUE , new int[] { 0, 2, 2, 0, 1 }),
+            new CardImpl(24, 0, Tier.LOW , Color.WHITE, new int[] { 1, 0, 2, 2, 0 }),
+            new CardImpl(25, 0, Tier.LOW , Color.BROWN, new int[] { 1, 3, 1, 0, 0 }),
+            new CardImpl(26, 0, Tier.LOW , Color.RED  , new int[] { 3, 1, 0, 0, 1 }),
+            new CardImpl(27, 0, Tier.LOW , Color.GREEN, new int[] { 0, 0, 1, 3, 1 }),
+            new CardImpl(28, 0, Tier.LOW , Color.BLUE , new int[] { 0, 1, 3, 1, 0 }),
+            new CardImpl(29, 0, Tier.LOW , Color.WHITE, new int[] { 1, 0, 0, 1, 3 }),
+            new CardImpl(30, 0, Tier.LOW , Color.BROWN, new int[] { 0, 1, 1, 2, 1 }),
+            new CardImpl(31, 0, Tier.LOW , Color.RED  , new int[] { 1, 0, 1, 1, 2 }),
+            new CardImpl(32, 0, Tier.LOW , Color.GREEN, new int[] { 2, 1, 0, 1, 1 }),
+            new CardImpl(33, 0, Tier.LOW , Color.BLUE , new int[] { 1, 2, 1, 0, 1 }),
+            new CardImpl(34, 0, Tier.LOW , Color.WHITE, new int[] { 1, 1, 2, 1, 0 }),
+            new CardImpl(35, 1, Tier.LOW , Color.BROWN, new int[] { 0, 0, 0, 4, 0 }),
+            new CardImpl(36, 1, Tier.LOW , Color.RED  , new int[] { 0, 0, 0, 0, 4 }),
+            new CardImpl(37, 1, Tier.LOW , Color.GREEN, new int[] { 4, 0, 0, 0, 0 }),
+            new CardImpl(38, 1, Tier.LOW , Color.BLUE , new int[] { 0, 4, 0, 0, 0 }),
+            new CardImpl(39, 1, Tier.LOW , Color.WHITE, new int[] { 0, 0, 4, 0, 0 }));
     /** Default {@link Tier#MID} {@link CardDeck}. */
-    private static final List<CardImpl> defaultMid = Arrays.asList(new CardImpl[] {
-            new CardImpl(1, Tier.MID , Color.BROWN, new int[] { 0, 0, 2, 2, 3 }),
-            new CardImpl(1, Tier.MID , Color.RED  , new int[] { 3, 2, 0, 0, 2 }),
-            new CardImpl(1, Tier.MID , Color.GREEN, new int[] { 2, 0, 0, 3, 2 }),
-            new CardImpl(1, Tier.MID , Color.BLUE , new int[] { 0, 3, 2, 2, 0 }),
-            new CardImpl(1, Tier.MID , Color.WHITE, new int[] { 2, 2, 3, 0, 0 }),
-            new CardImpl(1, Tier.MID , Color.BROWN, new int[] { 2, 0, 3, 0, 3 }),
-            new CardImpl(1, Tier.MID , Color.RED  , new int[] { 3, 2, 0, 3, 0 }),
-            new CardImpl(1, Tier.MID , Color.GREEN, new int[] { 0, 3, 2, 0, 3 }),
-            new CardImpl(1, Tier.MID , Color.BLUE , new int[] { 3, 0, 3, 2, 0 }),
-            new CardImpl(1, Tier.MID , Color.WHITE, new int[] { 0, 3, 0, 3, 2 }),
-            new CardImpl(2, Tier.MID , Color.BROWN, new int[] { 0, 0, 0, 0, 5 }),
-            new CardImpl(2, Tier.MID , Color.RED  , new int[] { 5, 0, 0, 0, 0 }),
-            new CardImpl(2, Tier.MID , Color.GREEN, new int[] { 0, 0, 5, 0, 0 }),
-            new CardImpl(2, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 5, 0 }),
-            new CardImpl(2, Tier.MID , Color.WHITE, new int[] { 0, 5, 0, 0, 0 }),
-            new CardImpl(2, Tier.MID , Color.BROWN, new int[] { 0, 2, 4, 1, 0 }),
-            new CardImpl(2, Tier.MID , Color.RED  , new int[] { 0, 0, 2, 4, 1 }),
-            new CardImpl(2, Tier.MID , Color.GREEN, new int[] { 1, 0, 0, 2, 4 }),
-            new CardImpl(2, Tier.MID , Color.BLUE , new int[] { 4, 1, 0, 0, 2 }),
-            new CardImpl(2, Tier.MID , Color.WHITE, new int[] { 2, 4, 1, 0, 0 }),
-            new CardImpl(2, Tier.MID , Color.BROWN, new int[] { 0, 3, 5, 0, 0 }),
-            new CardImpl(2, Tier.MID , Color.RED  , new int[] { 5, 0, 0, 0, 3 }),
-            new CardImpl(2, Tier.MID , Color.GREEN, new int[] { 0, 0, 3, 5, 0 }),
-            new CardImpl(2, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 3, 5 }),
-            new CardImpl(2, Tier.MID , Color.WHITE, new int[] { 3, 5, 0, 0, 0 }),
-            new CardImpl(3, Tier.MID , Color.BROWN, new int[] { 6, 0, 0, 0, 0 }),
-            new CardImpl(3, Tier.MID , Color.RED  , new int[] { 0, 6, 0, 0, 0 }),
-            new CardImpl(3, Tier.MID , Color.GREEN, new int[] { 0, 0, 6, 0, 0 }),
-            new CardImpl(3, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 6, 0 }),
-            new CardImpl(3, Tier.MID , Color.WHITE, new int[] { 0, 0, 0, 0, 6 }) });
+    private static final List<CardImpl> defaultMid = List.of(
+            new CardImpl(40, 1, Tier.MID , Color.BROWN, new int[] { 0, 0, 2, 2, 3 }),
+            new CardImpl(41, 1, Tier.MID , Color.RED  , new int[] { 3, 2, 0, 0, 2 }),
+            new CardImpl(42, 1, Tier.MID , Color.GREEN, new int[] { 2, 0, 0, 3, 2 }),
+            new CardImpl(43, 1, Tier.MID , Color.BLUE , new int[] { 0, 3, 2, 2, 0 }),
+            new CardImpl(44, 1, Tier.MID , Color.WHITE, new int[] { 2, 2, 3, 0, 0 }),
+            new CardImpl(45, 1, Tier.MID , Color.BROWN, new int[] { 2, 0, 3, 0, 3 }),
+            new CardImpl(46, 1, Tier.MID , Color.RED  , new int[] { 3, 2, 0, 3, 0 }),
+            new CardImpl(47, 1, Tier.MID , Color.GREEN, new int[] { 0, 3, 2, 0, 3 }),
+            new CardImpl(48, 1, Tier.MID , Color.BLUE , new int[] { 3, 0, 3, 2, 0 }),
+            new CardImpl(49, 1, Tier.MID , Color.WHITE, new int[] { 0, 3, 0, 3, 2 }),
+            new CardImpl(50, 2, Tier.MID , Color.BROWN, new int[] { 0, 0, 0, 0, 5 }),
+            new CardImpl(51, 2, Tier.MID , Color.RED  , new int[] { 5, 0, 0, 0, 0 }),
+            new CardImpl(52, 2, Tier.MID , Color.GREEN, new int[] { 0, 0, 5, 0, 0 }),
+            new CardImpl(53, 2, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 5, 0 }),
+            new CardImpl(54, 2, Tier.MID , Color.WHITE, new int[] { 0, 5, 0, 0, 0 }),
+            new CardImpl(55, 2, Tier.MID , Color.BROWN, new int[] { 0, 2, 4, 1, 0 }),
+            new CardImpl(56, 2, Tier.MID , Color.RED  , new int[] { 0, 0, 2, 4, 1 }),
+            new CardImpl(57, 2, Tier.MID , Color.GREEN, new int[] { 1, 0, 0, 2, 4 }),
+            new CardImpl(58, 2, Tier.MID , Color.BLUE , new int[] { 4, 1, 0, 0, 2 }),
+            new CardImpl(59, 2, Tier.MID , Color.WHITE, new int[] { 2, 4, 1, 0, 0 }),
+            new CardImpl(60, 2, Tier.MID , Color.BROWN, new int[] { 0, 3, 5, 0, 0 }),
+            new CardImpl(61, 2, Tier.MID , Color.RED  , new int[] { 5, 0, 0, 0, 3 }),
+            new CardImpl(62, 2, Tier.MID , Color.GREEN, new int[] { 0, 0, 3, 5, 0 }),
+            new CardImpl(63, 2, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 3, 5 }),
+            new CardImpl(64, 2, Tier.MID , Color.WHITE, new int[] { 3, 5, 0, 0, 0 }),
+            new CardImpl(65, 3, Tier.MID , Color.BROWN, new int[] { 6, 0, 0, 0, 0 }),
+            new CardImpl(66, 3, Tier.MID , Color.RED  , new int[] { 0, 6, 0, 0, 0 }),
+            new CardImpl(67, 3, Tier.MID , Color.GREEN, new int[] { 0, 0, 6, 0, 0 }),
+            new CardImpl(68, 3, Tier.MID , Color.BLUE , new int[] { 0, 0, 0, 6, 0 }),
+            new CardImpl(69, 3, Tier.MID , Color.WHITE, new int[] { 0, 0, 0, 0, 6 }));
     /** Default {@link Tier#HIGH} {@link CardDeck}. */
-    private static final List<CardImpl> defaultHigh = Arrays.asList(new CardImpl[] {
-            new CardImpl(3, Tier.HIGH, Color.BROWN, new int[] { 0, 3, 5, 3, 3 }),
-            new CardImpl(3, Tier.HIGH, Color.RED  , new int[] { 3, 0, 3, 5, 3 }),
-            new CardImpl(3, Tier.HIGH, Color.GREEN, new int[] { 3, 3, 0, 3, 5 }),
-            new CardImpl(3, Tier.HIGH, Color.BLUE , new int[] { 5, 3, 3, 0, 3 }),
-            new CardImpl(3, Tier.HIGH, Color.WHITE, new int[] { 3, 5, 3, 3, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.BROWN, new int[] { 0, 7, 0, 0, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.RED  , new int[] { 0, 0, 7, 0, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 0, 7, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.BLUE , new int[] { 0, 0, 0, 0, 7 }),
-            new CardImpl(4, Tier.HIGH, Color.WHITE, new int[] { 7, 0, 0, 0, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.BROWN, new int[] { 3, 6, 3, 0, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.RED  , new int[] { 0, 3, 6, 3, 0 }),
-            new CardImpl(4, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 3, 6, 3 }),
-            new CardImpl(4, Tier.HIGH, Color.BLUE , new int[] { 3, 0, 0, 3, 6 }),
-            new CardImpl(4, Tier.HIGH, Color.WHITE, new int[] { 6, 3, 0, 0, 3 }),
-            new CardImpl(5, Tier.HIGH, Color.BROWN, new int[] { 3, 7, 0, 0, 0 }),
-            new CardImpl(5, Tier.HIGH, Color.RED  , new int[] { 0, 3, 7, 0, 0 }),
-            new CardImpl(5, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 3, 7, 0 }),
-            new CardImpl(5, Tier.HIGH, Color.BLUE , new int[] { 0, 0, 0, 3, 7 }),
-            new CardImpl(5, Tier.HIGH, Color.WHITE, new int[] { 7, 0, 0, 0, 3 }) });
-
-    static {
-        defaultDeck.put(Tier.LOW, defaultLow);
-        defaultDeck.put(Tier.MID, defaultMid);
-        defaultDeck.put(Tier.HIGH, defaultHigh);
-    }
+    private static final List<CardImpl> defaultHigh = List.of(
+            new CardImpl(70, 3, Tier.HIGH, Color.BROWN, new int[] { 0, 3, 5, 3, 3 }),
+            new CardImpl(71, 3, Tier.HIGH, Color.RED  , new int[] { 3, 0, 3, 5, 3 }),
+            new CardImpl(72, 3, Tier.HIGH, Color.GREEN, new int[] { 3, 3, 0, 3, 5 }),
+            new CardImpl(73, 3, Tier.HIGH, Color.BLUE , new int[] { 5, 3, 3, 0, 3 }),
+            new CardImpl(74, 3, Tier.HIGH, Color.WHITE, new int[] { 3, 5, 3, 3, 0 }),
+            new CardImpl(75, 4, Tier.HIGH, Color.BROWN, new int[] { 0, 7, 0, 0, 0 }),
+            new CardImpl(76, 4, Tier.HIGH, Color.RED  , new int[] { 0, 0, 7, 0, 0 }),
+            new CardImpl(77, 4, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 0, 7, 0 }),
+            new CardImpl(78, 4, Tier.HIGH, Color.BLUE , new int[] { 0, 0, 0, 0, 7 }),
+            new CardImpl(79, 4, Tier.HIGH, Color.WHITE, new int[] { 7, 0, 0, 0, 0 }),
+            new CardImpl(80, 4, Tier.HIGH, Color.BROWN, new int[] { 3, 6, 3, 0, 0 }),
+            new CardImpl(81, 4, Tier.HIGH, Color.RED  , new int[] { 0, 3, 6, 3, 0 }),
+            new CardImpl(82, 4, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 3, 6, 3 }),
+            new CardImpl(83, 4, Tier.HIGH, Color.BLUE , new int[] { 3, 0, 0, 3, 6 }),
+            new CardImpl(84, 4, Tier.HIGH, Color.WHITE, new int[] { 6, 3, 0, 0, 3 }),
+            new CardImpl(85, 5, Tier.HIGH, Color.BROWN, new int[] { 3, 7, 0, 0, 0 }),
+            new CardImpl(86, 5, Tier.HIGH, Color.RED  , new int[] { 0, 3, 7, 0, 0 }),
+            new CardImpl(87, 5, Tier.HIGH, Color.GREEN, new int[] { 0, 0, 3, 7, 0 }),
+            new CardImpl(88, 5, Tier.HIGH, Color.BLUE , new int[] { 0, 0, 0, 3, 7 }),
+            new CardImpl(89, 5, Tier.HIGH, Color.WHITE, new int[] { 7, 0, 0, 0, 3 }));
+
+    /**
+     * Map from {@link Tier}s to default card lists of that tier. Like the
+     * lists (and their {@link CardImpl}s), it is immutable and shared by all
+     * games.
+     */
+    private static final Map<Tier, List<CardImpl>> defaultDeck = Map.of(
+            Tier.LOW, defaultLow, Tier.MID, defaultMid, Tier.HIGH, defaultHigh);
 
     /** The {@link Tier} of the {@link Card}s in the {@link CardDeck}. */
     public final Tier tier;
     /** The {@link Card}s in the {@link CardDeck} (in order). */
     private final LinkedList<CardImpl> deck = new LinkedList<>();
     /** The {@link Card}s currently on display. */
-    private final Set<Card> display = new HashSet<>();
-    /** The {@link Card}s that have ever been issued as hidden. */
-    private final Set<Card> hidden = new HashSet<>();
+    private final Set<Card> display = new LinkedHashSet<>();
     /** The history of the {@link CardDeck}, from most to least recent. */
     private final Deque<Action> actions = new LinkedList<>();
     /**
@@ -149,35 +147,49 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
      * @param tier The {@link Tier} of the {@link CardDeck}.
      */
     public CardDeck(Tier tier) {
-        this(tier, defaultDeck.get(tier));
+        this(tier, new SplittableRandom());
+    }
+
+    /**
+     * Create a default {@link CardDeck} of the specified {@link Tier}.
+     *
+     * @param tier The {@link Tier} of the {@link CardDeck}.
+     * @param random The source of randomness for shuffling.
+     */
+    public CardDeck(Tier tier, SplittableRandom random) {
+        this(tier, defaultDeck.get(tier), random);
     }
 
     /**
      * Create a {@link CardDeck} of the specified {@link Tier} using the
-     * {@link CardImpl}s in {@code cards}.
+     * {@link CardImpl}s in {@code cards}. As {@link CardImpl}s are immutable,
+     * they are shared rather than copied.
      *
      * @param tier The {@link Tier} of the {@link CardDeck}.
      * @param cards A valid {@link Collection} of {@link CardImpl}s. Each
      *            {@link CardImpl} in {@code cards} must be in {@code tier}.
+     * @param random The source of randomness for shuffling.
      * @throws IllegalArgumentException If {@code cards} is invalid.
      */
-    public CardDeck(Tier tier, Collection<? extends CardImpl> cards) {
+    public CardDeck(Tier tier, Collection<? extends CardImpl> cards,
+                    SplittableRandom random) {
         this.tier = tier;
         for (CardImpl c : cards) {
             if (!c.tier().equals(tier)) {
                 throw new IllegalArgumentException(
                         "cards has a card of the wrong tier.");
             }
-            this.deck.add(c.clone());
+            this.deck.add(c);
         }
-        Collections.shuffle(this.deck);
+        Shuffle.shuffle(this.deck, random);
         while (this.display.size() < DISPLAY_CAP && !isDeckEmpty()) {
             this.display.add(this.deck.poll());
         }
     }
 
     /**
-     * Create a copy of {@code other}, i.e. this is a copy constructor.
+     * Create a copy of {@code other}, i.e. this is a copy constructor. The
+     * history of {@code other} is not copied.
      *
      * @param other The {@link CardDeck} to copy.
      */
@@ -185,8 +197,6 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
         this.tier = other.tier;
         this.deck.addAll(other.deck);
         this.display.addAll(other.display);
-        this.hidden.addAll(other.hidden);
-        this.actions.addAll(other.actions);
     }
 
     @Override
@@ -204,9 +214,21 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
         return this.deck.size();
     }
 
+    @Override
+    public int displaySize() {
+        return this.display.size();
+    }
+
     @Override
     public Set<Card> display() {
-        return Set.copyOf(this.display);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(this.display));
+    }
+
+    @Override
+    public void addDisplay(CostTable table) {
+        for (Card card : this.display) {
+            table.add(card);
+        }
     }
 
     @Override
@@ -221,16 +243,21 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
     }
 
     @Override
-    public Card peek() {
-        CardImpl card = this.deck.peek();
-        if (card != null) {
-            HiddenCard hc = new HiddenCard(card);
-            this.hidden.add(hc);
-            return hc;
+    public Card displayed(int id) {
+        for (Card card : this.display) {
+            if (card.id() == id) {
+                return card;
+            }
         }
         return null;
     }
 
+    @Override
+    public Card peek() {
+        CardImpl card = this.deck.peek();
+        return card != null ? card.hidden() : null;
+    }
+
     @Override
     public CardDeck clone() {
         return new CardDeck(this);
@@ -247,16 +274,17 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
     }
 
     /**
-     * Return {@code card} but unhidden, provided {@code card} was hidden by the
-     * {@link CardDeck}.
+     * Return {@code card} but unhidden, provided {@code card} was hidden by a
+     * {@link CardDeck} of the same {@link Tier}. Every {@link Card} has a
+     * single hidden version, so this takes constant time.
      *
      * @param card The {@link Card} to unhide.
-     * @return The unhidden version of {@code card} if it was hidden by the
-     *             {@link CardDeck} (which may be {@code card} itself if it is
-     *             already unhidden).
+     * @return The unhidden version of {@code card} if it was hidden by a
+     *             {@link CardDeck} of the same {@link Tier} (which may be
+     *             {@code card} itself if it is already unhidden).
      */
     public Card unhide(Card card) {
-        if (this.hidden.contains(card) && card instanceof HiddenCard) {
+        if (card instanceof HiddenCard && card.tier() == this.tier) {
             return ((HiddenCard)card).card();
         }
         return card;
@@ -311,9 +339,11 @@ public final class CardDeck implements ReadOnlyCardDeck, Undoable {
 
     /**
      * Shuffle the {@link #deck} (not including the {@link #display}).
+     *
+     * @param random The source of randomness for shuffling.
      */
-    public void shuffle() {
-        Collections.shuffle(this.deck);
+    public void shuffle(SplittableRandom random) {
+        Shuffle.shuffle(this.deck, random);
     }
 
     @Override
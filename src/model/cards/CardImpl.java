@@ -2,11 +2,14 @@ package model.cards;
 
 import model.gems.Color;
 import model.gems.GemSet;
+import model.gems.PackedGems;
 import model.gems.ReadOnlyGemSet;
 
 /** A real {@link Card}. */
 final class CardImpl implements Card {
 
+    /** The identifier of the {@link CardImpl} (see {@link Card#id()}). */
+    private final int id;
     /** The number of prestige points the {@link CardImpl} is worth. */
     private final int points;
     /** The {@link Tier} the {@link CardImpl} belongs to. */
@@ -15,40 +18,70 @@ final class CardImpl implements Card {
     private final Color color;
     /** The number of gems needed to buy the {@link CardImpl}. */
     private final ReadOnlyGemSet cost;
+    /** {@link #cost} in packed form (see {@link PackedGems}). */
+    private final long packedCost;
+    /** The face-down version of the {@link CardImpl}. */
+    private final HiddenCard hidden = new HiddenCard(this);
 
     /**
      * Create a {@link CardImpl}.
      *
+     * @param id The identifier of the card. Must be between 0 and
+     *            {@link Card#MAX_ID}.
      * @param points The number of prestige points the card is worth.
      * @param tier The {@link Tier} the card belongs to.
      * @param color The {@link Color} of the gem the card provides.
      * @param cost The number of gems needed to buy the card. Any {@code null}
      *            mappings are treated as zero.
+     * @throws IllegalArgumentException If {@code id} is invalid, or if
+     *             {@code cost} cannot be packed (see {@link PackedGems#pack}).
      */
-    public CardImpl(int points, Tier tier, Color color, ReadOnlyGemSet cost) {
+    public CardImpl(int id, int points, Tier tier, Color color,
+                    ReadOnlyGemSet cost) {
+        if (id < 0 || id > Card.MAX_ID) {
+            throw new IllegalArgumentException("Invalid card id.");
+        }
+        this.id = id;
         this.points = points;
         this.tier = tier;
         this.color = color;
         this.cost = cost.clone();
+        this.packedCost = PackedGems.pack(cost);
     }
 
     /**
      * Create a {@link CardImpl}.
      *
+     * @param id The identifier of the card. Must be between 0 and
+     *            {@link Card#MAX_ID}.
      * @param points The number of prestige points the card is worth.
      * @param tier The {@link Tier} the card belongs to.
      * @param color The {@link Color} of the gem the card provides.
      * @param cost The number of gems needed to buy the card. Must obey the
      *            preconditions of {@link GemSet#toGemSet}.
-     * @throws IllegalArgumentException If {@code cost} is invalid.
+     * @throws IllegalArgumentException If {@code id} or {@code cost} is
+     *             invalid.
      */
-    public CardImpl(int points, Tier tier, Color color, int[] cost) {
-        this(points, tier, color, GemSet.toGemSet(cost));
+    public CardImpl(int id, int points, Tier tier, Color color, int[] cost) {
+        this(id, points, tier, color, GemSet.toGemSet(cost));
     }
 
     @Override
     public CardImpl clone() {
-        return new CardImpl(points(), tier(), color(), cost());
+        return new CardImpl(id(), points(), tier(), color(), cost());
+    }
+
+    /**
+     * @return The face-down version of the {@link CardImpl}, which is always
+     *             the same object.
+     */
+    HiddenCard hidden() {
+        return this.hidden;
+    }
+
+    @Override
+    public int id() {
+        return this.id;
     }
 
     @Override
@@ -76,6 +109,11 @@ final class CardImpl implements Card {
         return this.cost.clone();
     }
 
+    @Override
+    public long packedCost() {
+        return this.packedCost;
+    }
+
     @Override
     public boolean isHidden() {
         return false;
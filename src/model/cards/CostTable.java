@@ -0,0 +1,122 @@
+package model.cards;
+
+import java.util.Arrays;
+
+import model.gems.PackedGems;
+import model.gems.TokenColor;
+
+/**
+ * A table of {@link Card}s and their packed costs (see {@link PackedGems}),
+ * kept in parallel arrays, so that the affordability of every {@link Card} of
+ * the table can be computed in one pass over the costs. A table is meant to
+ * be cleared and refilled for each decision, e.g. with the {@link Card}s on
+ * display (see {@link ReadOnlyCardDeck#addDisplay}) and in reserve.
+ * <p>
+ * Not thread-safe.
+ */
+public final class CostTable {
+
+    /** The largest capacity of a {@link CostTable}. */
+    public static final int MAX_CAPACITY = Integer.SIZE - 1;
+
+    /** The {@link Card}s of the {@link CostTable}. */
+    private final Card[] cards;
+    /** The packed cost of each of {@link #cards}. */
+    private final long[] costs;
+    /** The mask of the indices of the hidden {@link Card}s. */
+    private int hidden = 0;
+    /** The number of {@link Card}s of the {@link CostTable}. */
+    private int size = 0;
+
+    /**
+     * Create an empty {@link CostTable}.
+     *
+     * @param capacity The largest number of {@link Card}s of the table.
+     * @throws IllegalArgumentException If {@code capacity} is negative or
+     *             above {@link #MAX_CAPACITY}.
+     */
+    public CostTable(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity.");
+        }
+        this.cards = new Card[capacity];
+        this.costs = new long[capacity];
+    }
+
+    /**
+     * @return The number of {@link Card}s of the {@link CostTable}.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param i The index to query.
+     * @return The {@link Card} of index {@code i}.
+     * @throws IndexOutOfBoundsException If {@code i} is not below
+     *             {@link #size()}.
+     */
+    public Card card(int i) {
+        if (i >= this.size) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return this.cards[i];
+    }
+
+    /** Remove every {@link Card} of the {@link CostTable}. */
+    public void clear() {
+        Arrays.fill(this.cards, 0, this.size, null);
+        this.hidden = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Add {@code card} at the end of the {@link CostTable}. A hidden
+     * {@link Card} is never affordable (its cost is unknown).
+     *
+     * @param card The {@link Card} to add.
+     * @throws IllegalStateException If the {@link CostTable} is full.
+     */
+    public void add(Card card) {
+        if (this.size == this.cards.length) {
+            throw new IllegalStateException("The table is full.");
+        }
+        if (card.isHidden()) {
+            this.hidden |= 1 << this.size;
+        }
+        this.cards[this.size] = card;
+        this.costs[this.size] = card.packedCost();
+        ++this.size;
+    }
+
+    /**
+     * Compute at once the canonical payment of every {@link Card} of the
+     * {@link CostTable} (see {@link PackedGems#spend}), and which of them can
+     * be afforded.
+     *
+     * @param gems The packed gems (from cards) of the buyer.
+     * @param tokens The packed tokens of the buyer.
+     * @param payments If not {@code null}, receives the packed payment of the
+     *            {@link Card} of each index, which has more gold tokens than
+     *            {@code tokens} (the gold shortfall) if the {@link Card}
+     *            cannot be afforded. Must have at least {@link #size()}
+     *            elements.
+     * @return The mask of the indices of the {@link Card}s that can be
+     *             afforded.
+     */
+    public int affordable(long gems, long tokens, long[] payments) {
+        int gold = PackedGems.get(tokens, TokenColor.GOLD);
+        int mask = 0;
+        for (int i = 0; i < this.size; ++i) {
+            long payment = PackedGems.spend(this.costs[i], gems, tokens);
+            if (payments != null) {
+                payments[i] = payment;
+            }
+            // The sign bit is set iff the payment needs too much gold
+            int over = gold - PackedGems.get(payment, TokenColor.GOLD);
+            mask |= (~over >>> (Integer.SIZE - 1)) << i;
+        }
+        return mask & ~this.hidden;
+    }
+
+}
@@ -25,6 +25,11 @@ final class HiddenCard implements Card {
         return this.card;
     }
 
+    @Override
+    public int id() {
+        return Card.HIDDEN_ID;
+    }
+
     @Override
     public int points() {
         return 0;
@@ -50,6 +55,11 @@ final class HiddenCard implements Card {
         return null;
     }
 
+    @Override
+    public long packedCost() {
+        return 0;
+    }
+
     @Override
     public boolean isHidden() {
         return true;
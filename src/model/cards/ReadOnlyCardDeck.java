@@ -22,11 +22,25 @@ public interface ReadOnlyCardDeck {
      */
     public int deckSize();
 
+    /**
+     * @return The number of {@link Card}s on display.
+     */
+    public int displaySize();
+
     /**
      * @return An unmodifiable copy of the {@link Card}s on display.
      */
     public Set<Card> display();
 
+    /**
+     * Add the {@link Card}s on display to {@code table}, in the order of
+     * {@link #display()}, without copying the display.
+     *
+     * @param table The {@link CostTable} to add to.
+     * @throws IllegalStateException If {@code table} is too small.
+     */
+    public void addDisplay(CostTable table);
+
     /**
      * @param card The {@code Card} to check.
      * @return {@code true} if the top card of deck is {@code card}. Always
@@ -41,9 +55,17 @@ public interface ReadOnlyCardDeck {
      */
     public boolean inDisplay(Card card);
 
+    /**
+     * @param id The {@link Card#id()} to look for.
+     * @return The {@link Card} on display with identifier {@code id}, or
+     *             {@code null} if there is none.
+     */
+    public Card displayed(int id);
+
     /**
      * @return The (hidden) top {@link Card} of the {@link ReadOnlyCardDeck}, or
-     *             {@code null} if the deck (not the display) is empty.
+     *             {@code null} if the deck (not the display) is empty. The same
+     *             hidden object is returned for the same card every time.
      */
     public Card peek();
 
@@ -0,0 +1,180 @@
+package model.gems;
+
+/**
+ * Gem counts packed into a {@code long}, one 8-bit lane per {@link Color}
+ * (lane {@code i} holds the count of the {@link Color} of ordinal {@code i}).
+ * Tokens are packed the same way, one lane per {@link TokenColor} (the
+ * ordinals of the {@link Color}s and of their {@link TokenColor}s agree, and
+ * gold tokens take the next lane). Every count must be below
+ * {@value #LANE_LIMIT}, so that lanes can be compared all at once (SWAR): a
+ * count is at most another iff subtracting it from the other with the top bit
+ * of the lane set leaves that bit set.
+ */
+public final class PackedGems {
+
+    /** The number of bits of a lane. */
+    private static final int LANE_BITS = 8;
+    /** Every count must be below this limit. */
+    public static final int LANE_LIMIT = 1 << (LANE_BITS - 1);
+    /** The top bit of every lane. */
+    private static final long HIGH = 0x8080808080808080L;
+    /** The lowest bit of every lane. */
+    private static final long LOW = 0x0101010101010101L;
+    /** The lane of each {@link TokenColor} (and {@link Color}), by ordinal. */
+    private static final long[] LANES = new long[TokenColor.values().length];
+    /** The lanes of the {@link Color}s. */
+    private static final long COLORS;
+
+    static {
+        for (TokenColor c : TokenColor.values()) {
+            LANES[c.ordinal()] = 1L << (LANE_BITS * c.ordinal());
+        }
+        COLORS = LANES[TokenColor.GOLD.ordinal()] - 1;
+    }
+
+    /** This class is not to be instantiated. */
+    private PackedGems() {}
+
+    /**
+     * @param gems The gems to pack.
+     * @return {@code gems} in packed form.
+     * @throws IllegalArgumentException If a count of {@code gems} is not below
+     *             {@value #LANE_LIMIT}.
+     */
+    public static long pack(ReadOnlyGemSet gems) {
+        long packed = 0;
+        for (Color c : Color.values()) {
+            int count = gems.get(c);
+            if (count >= LANE_LIMIT) {
+                throw new IllegalArgumentException("Too many gems to pack.");
+            }
+            packed += count * LANES[c.ordinal()];
+        }
+        return packed;
+    }
+
+    /**
+     * @param tokens The tokens to pack.
+     * @return {@code tokens} in packed form.
+     * @throws IllegalArgumentException If a count of {@code tokens} is not
+     *             below {@value #LANE_LIMIT}.
+     */
+    public static long pack(ReadOnlyTokenSet tokens) {
+        long packed = 0;
+        for (TokenColor c : TokenColor.values()) {
+            int count = tokens.get(c);
+            if (count >= LANE_LIMIT) {
+                throw new IllegalArgumentException("Too many tokens to pack.");
+            }
+            packed += count * LANES[c.ordinal()];
+        }
+        return packed;
+    }
+
+    /**
+     * @param packed Packed tokens.
+     * @return A new {@link TokenSet} holding {@code packed}.
+     */
+    public static TokenSet toTokenSet(long packed) {
+        TokenSet tokens = new TokenSet();
+        for (TokenColor c : TokenColor.values()) {
+            int count = get(packed, c);
+            if (count > 0) {
+                tokens.give(c, count);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @param color A {@link Color}.
+     * @return The packed form of a single gem of {@code color}, so that adding
+     *             (or subtracting) it to a packed value adds (or subtracts) a
+     *             gem of {@code color}.
+     */
+    public static long one(Color color) {
+        return LANES[color.ordinal()];
+    }
+
+    /**
+     * @param packed Packed gems.
+     * @param color The {@link Color} to query.
+     * @return The number of gems of {@code color} in {@code packed}.
+     */
+    public static int get(long packed, Color color) {
+        return (int)(packed >>> (LANE_BITS * color.ordinal())) & (LANE_LIMIT - 1);
+    }
+
+    /**
+     * @param color A {@link TokenColor}.
+     * @return The packed form of a single token of {@code color}.
+     */
+    public static long one(TokenColor color) {
+        return LANES[color.ordinal()];
+    }
+
+    /**
+     * @param packed Packed tokens.
+     * @param color The {@link TokenColor} to query.
+     * @return The number of tokens of {@code color} in {@code packed}.
+     */
+    public static int get(long packed, TokenColor color) {
+        return (int)(packed >>> (LANE_BITS * color.ordinal())) & (LANE_LIMIT - 1);
+    }
+
+    /**
+     * @param packed Packed gems.
+     * @param other Packed gems.
+     * @return {@code true} if every count of {@code packed} is at most the
+     *             count of the same {@link Color} in {@code other}.
+     */
+    public static boolean dominatedBy(long packed, long other) {
+        return (((other | HIGH) - packed) & HIGH) == HIGH;
+    }
+
+    /**
+     * Compute the canonical spending of a cost: the gems of each {@link Color}
+     * are paid with tokens of that color first, and the rest with gold
+     * tokens, however many it takes. The cost is computed lane by lane,
+     * without any allocation.
+     *
+     * @param cost The packed cost to pay. Its total must be below
+     *            {@value #LANE_LIMIT}.
+     * @param gems The packed gems (from cards) that lower {@code cost}.
+     * @param tokens The packed tokens to pay with.
+     * @return The packed tokens spent. It may hold more gold tokens than
+     *             {@code tokens}; the difference is the gold shortfall.
+     */
+    public static long spend(long cost, long gems, long tokens) {
+        // The lanes where the cost is not covered by the gems
+        long diff = (cost | HIGH) - gems;
+        long need = diff & ~HIGH & (((diff & HIGH) >>> (LANE_BITS - 1)) * 0xFF);
+        // Pay each lane with the tokens of its color, as far as they go
+        long colored = tokens & COLORS;
+        long lacking = ((((need | HIGH) - colored) & HIGH) >>> (LANE_BITS - 1)) * 0xFF;
+        long pay = (colored & lacking) | (need & ~lacking);
+        // And the sum of what is left with gold
+        long gold = ((need - pay) * LOW) >>> (Long.SIZE - LANE_BITS);
+        return pay + gold * one(TokenColor.GOLD);
+    }
+
+    /**
+     * Compute the canonical payment of a cost (see
+     * {@link #spend(long, long, long)}).
+     *
+     * @param cost The packed cost to pay. Its total must be below
+     *            {@value #LANE_LIMIT}.
+     * @param gems The packed gems (from cards) that lower {@code cost}.
+     * @param tokens The packed tokens to pay with.
+     * @return The packed tokens of the payment, or {@code -1} if
+     *             {@code tokens} are not enough to pay.
+     */
+    public static long payment(long cost, long gems, long tokens) {
+        long spent = spend(cost, gems, tokens);
+        if (get(spent, TokenColor.GOLD) > get(tokens, TokenColor.GOLD)) {
+            return -1;
+        }
+        return spent;
+    }
+
+}
@@ -2,6 +2,7 @@ package model.nobles;
 
 import model.gems.Color;
 import model.gems.GemSet;
+import model.gems.PackedGems;
 import model.gems.ReadOnlyGemSet;
 
 /** A representation of a noble. */
@@ -11,6 +12,8 @@ public final class Noble {
     public final int points;
     /** The number of gems needed to earn a visit from the {@link Noble}. */
     private final ReadOnlyGemSet cost;
+    /** {@link #cost} in packed form (see {@link PackedGems}). */
+    private final long packedCost;
 
     /**
      * Create a {@link Noble}.
@@ -18,10 +21,13 @@ public final class Noble {
      * @param points The number of prestige points the noble is worth.
      * @param cost The number of gems needed to earn a visit from the noble. Any
      *            {@code null} mappings are treated as zero.
+     * @throws IllegalArgumentException If {@code cost} cannot be packed (see
+     *             {@link PackedGems#pack}).
      */
     public Noble(int points, ReadOnlyGemSet cost) {
         this.points = points;
         this.cost = cost.clone();
+        this.packedCost = PackedGems.pack(cost);
     }
 
     /**
@@ -54,6 +60,22 @@ public final class Noble {
         return this.cost.dominatedBy(gems);
     }
 
+    /**
+     * @return The number of gems needed to earn a visit from the noble, in
+     *             packed form (see {@link PackedGems}).
+     */
+    public long packedCost() {
+        return this.packedCost;
+    }
+
+    /**
+     * @param gems Gems in packed form (see {@link PackedGems}).
+     * @return {@code true} if {@code gems} is enough to win the noble.
+     */
+    public boolean satisfiedBy(long gems) {
+        return PackedGems.dominatedBy(this.packedCost, gems);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
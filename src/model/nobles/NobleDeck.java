@@ -1,23 +1,27 @@
 package model.nobles;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.SplittableRandom;
 
+import model.gems.PackedGems;
 import model.gems.ReadOnlyGemSet;
 import util.Marker;
+import util.Shuffle;
 import util.Undoable;
 
 /** A representation of a deck of {@link Noble}s. */
 public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
 
-    /** All the available {@link Noble}s. */
-    private static final List<Noble> deck = Arrays.asList(new Noble[] {
+    /** All the available {@link Noble}s. Immutable and shared by all games. */
+    private static final List<Noble> deck = List.of(
             new Noble(3, new int[] { 4, 4, 0, 0, 0 }),
             new Noble(3, new int[] { 0, 4, 4, 0, 0 }),
             new Noble(3, new int[] { 0, 0, 4, 4, 0 }),
@@ -27,10 +31,17 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
             new Noble(3, new int[] { 0, 3, 3, 3, 0 }),
             new Noble(3, new int[] { 0, 0, 3, 3, 3 }),
             new Noble(3, new int[] { 3, 0, 0, 3, 3 }),
-            new Noble(3, new int[] { 3, 3, 0, 0, 3 }) });
+            new Noble(3, new int[] { 3, 3, 0, 0, 3 }));
 
-    /** The {@link Noble}s currently on display. */
-    private final Set<Noble> display = new HashSet<>();
+    /**
+     * The {@link Noble}s the {@link NobleDeck} started with, by slot. Never
+     * mutated, so copies share it.
+     */
+    private final Noble[] slots;
+    /** The packed costs of the {@link Noble}s of {@link #slots}. */
+    private final long[] costs;
+    /** The mask of the slots of the {@link Noble}s currently on display. */
+    private int display;
     /** The history of the {@link NobleDeck}, from most to least recent. */
     private final Deque<Action> actions = new LinkedList<>();
     /**
@@ -47,55 +58,117 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
      *             of {@link Noble}s in the {@link #deck}.
      */
     public NobleDeck(int n) {
-        if (n > deck.size()) {
-            throw new IllegalArgumentException(
-                    "Not enough nobles in the deck.");
-        }
-        Collections.shuffle(deck);
-        this.display.addAll(deck.subList(0, n));
+        this(n, new SplittableRandom());
+    }
+
+    /**
+     * Create a random {@link NobleDeck} with {@code n} {@link Noble}s.
+     *
+     * @param n The number of {@link Noble}s to start with.
+     * @param random The source of randomness for choosing the {@link Noble}s.
+     * @throws IllegalArgumentException If {@code n} is greater than the number
+     *             of {@link Noble}s in the {@link #deck}.
+     */
+    public NobleDeck(int n, SplittableRandom random) {
+        this(choose(n, random));
     }
 
     /**
      * Create a {@link NobleDeck} using the {@link Noble}s in {@code nobles}.
+     * Each {@link Noble} gets the slot of its position in {@code nobles}.
      *
      * @param nobles The {@link Noble}s to populate the {@link NobleDeck} with.
+     * @throws IllegalArgumentException If {@code nobles} has more than 32
+     *             (distinct) {@link Noble}s.
      */
     public NobleDeck(Collection<? extends Noble> nobles) {
-        this.display.addAll(nobles);
+        Set<Noble> distinct = new LinkedHashSet<>(nobles);
+        if (distinct.size() > Integer.SIZE) {
+            throw new IllegalArgumentException("Too many nobles.");
+        }
+        this.slots = distinct.toArray(new Noble[0]);
+        this.costs = new long[this.slots.length];
+        for (int i = 0; i < this.slots.length; ++i) {
+            this.costs[i] = this.slots[i].packedCost();
+        }
+        this.display = (int)((1L << this.slots.length) - 1);
+    }
+
+    /**
+     * Create a copy of {@code other}, i.e. this is a copy constructor. The
+     * history of {@code other} is not copied.
+     *
+     * @param other The {@link NobleDeck} to copy.
+     */
+    private NobleDeck(NobleDeck other) {
+        this.slots = other.slots;
+        this.costs = other.costs;
+        this.display = other.display;
+    }
+
+    /**
+     * @param n The number of {@link Noble}s to choose.
+     * @param random The source of randomness for choosing the {@link Noble}s.
+     * @return {@code n} {@link Noble}s chosen at random from {@link #deck}.
+     * @throws IllegalArgumentException If {@code n} is greater than the number
+     *             of {@link Noble}s in the {@link #deck}.
+     */
+    private static List<Noble> choose(int n, SplittableRandom random) {
+        if (n > deck.size()) {
+            throw new IllegalArgumentException(
+                    "Not enough nobles in the deck.");
+        }
+        // Shuffle a copy, as the static deck is shared between games
+        List<Noble> shuffled = new ArrayList<>(deck);
+        Shuffle.shuffle(shuffled, random);
+        return shuffled.subList(0, n);
     }
 
     @Override
     public boolean isEmpty() {
-        return this.display.isEmpty();
+        return this.display == 0;
     }
 
     @Override
     public Set<Noble> contents() {
-        return Set.copyOf(this.display);
+        return Collections.unmodifiableSet(nobles(this.display));
     }
 
     @Override
     public Set<Noble> satisfied(ReadOnlyGemSet gems) {
-        Set<Noble> nobles = new HashSet<>();
-        for (Noble n : this.display) {
-            if (n.satisfiedBy(gems)) {
-                nobles.add(n);
+        return nobles(satisfiedMask(PackedGems.pack(gems)));
+    }
+
+    @Override
+    public int satisfiedMask(long gems) {
+        int mask = 0;
+        for (int m = this.display; m != 0; m &= m - 1) {
+            int i = Integer.numberOfTrailingZeros(m);
+            if (PackedGems.dominatedBy(this.costs[i], gems)) {
+                mask |= 1 << i;
             }
         }
+        return mask;
+    }
+
+    @Override
+    public Set<Noble> nobles(int mask) {
+        Set<Noble> nobles = new LinkedHashSet<>();
+        for (int m = mask & this.display; m != 0; m &= m - 1) {
+            nobles.add(this.slots[Integer.numberOfTrailingZeros(m)]);
+        }
         return nobles;
     }
 
     @Override
     public NobleDeck clone() {
-        NobleDeck clone = new NobleDeck(this.display);
-        clone.actions.addAll(this.actions);
-        return clone;
+        return new NobleDeck(this);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (Noble n : this.display) {
+        for (Noble n : nobles(this.display)) {
             sb.append(n).append("\n");
         }
         return sb.toString();
@@ -108,12 +181,15 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
      * @return {@code true} if {@code noble} was successfully removed.
      */
     public boolean take(Noble noble) {
-        if (!this.display.contains(noble)) {
-            return false;
+        for (int m = this.display; m != 0; m &= m - 1) {
+            int i = Integer.numberOfTrailingZeros(m);
+            if (this.slots[i] == noble) {
+                this.display &= ~(1 << i);
+                this.actions.push(new Action(i));
+                return true;
+            }
         }
-        this.display.remove(noble);
-        this.actions.push(new Action(noble));
-        return true;
+        return false;
     }
 
     @Override
@@ -129,17 +205,18 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
 
         /** The {@link Type} of the {@link Action}. */
         private final Type type;
-        /** The {@link Noble} involved in the {@link Action}. */
-        private final Noble noble;
+        /** The slot of the {@link Noble} involved in the {@link Action}. */
+        private final int slot;
 
         /**
          * Create an {@link Action}.
          *
-         * @param noble The {@link Noble} involved in the {@link Action}.
+         * @param slot The slot of the {@link Noble} involved in the
+         *            {@link Action}.
          */
-        private Action(Noble noble) {
+        private Action(int slot) {
             this.type = Type.TAKE;
-            this.noble = noble;
+            this.slot = slot;
         }
 
         /**
@@ -147,7 +224,7 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
          */
         private Action() {
             this.type = Type.MARK;
-            this.noble = null;
+            this.slot = -1;
         }
 
         @Override
@@ -160,7 +237,7 @@ public final class NobleDeck implements ReadOnlyNobleDeck, Undoable {
                 action = NobleDeck.this.actions.pop();
                 switch (action.type) {
                     case TAKE:
-                        NobleDeck.this.display.add(action.noble);
+                        NobleDeck.this.display |= 1 << action.slot;
                         break;
                     case MARK:
                         NobleDeck.this.markers.remove(action);
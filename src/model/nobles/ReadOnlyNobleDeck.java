@@ -25,6 +25,24 @@ public interface ReadOnlyNobleDeck {
      */
     public Set<Noble> satisfied(ReadOnlyGemSet gems);
 
+    /**
+     * The {@link Noble}s of a {@link ReadOnlyNobleDeck} have fixed slots
+     * (indices below 32), so that subsets of them are bit masks of slots.
+     *
+     * @param gems Gems in packed form (see {@link model.gems.PackedGems}).
+     * @return The mask of the slots of the {@link Noble}s that can be won
+     *             over by {@code gems}.
+     */
+    public int satisfiedMask(long gems);
+
+    /**
+     * @param mask A mask of slots (see {@link #satisfiedMask(long)}).
+     * @return The {@link Noble}s of the slots in {@code mask} that are still
+     *             in the {@link ReadOnlyNobleDeck}, in the order of their
+     *             slots.
+     */
+    public Set<Noble> nobles(int mask);
+
     /**
      * @return A "deep" copy of the {@link ReadOnlyNobleDeck}.
      */
@@ -1,13 +1,18 @@
 package model.world;
 
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import model.cards.Card;
+import model.cards.CostTable;
 import model.gems.Color;
 import model.gems.GemSet;
+import model.gems.PackedGems;
 import model.gems.ReadOnlyGemSet;
 import model.gems.ReadOnlyTokenSet;
 import model.gems.TokenColor;
@@ -24,15 +29,19 @@ public final class Player implements ReadOnlyPlayer, Undoable {
 
     /** The gems (from {@link Card}s) the {@link Player} has. */
     private final GemSet cardGems = new GemSet();
+    /** {@link #cardGems} in packed form (see {@link PackedGems}). */
+    private long packedCardGems = 0;
     /** The tokens the {@link Player} has. */
     private final TokenSet tokens = new TokenSet();
+    /** {@link #tokens} in packed form (see {@link PackedGems}). */
+    private long packedTokens = 0;
 
     /** The {@link Card}s that the {@link Player} has reserved. */
-    private final Set<Card> reserved = new HashSet<>();
+    private final Set<Card> reserved = new LinkedHashSet<>();
     /** The {@link Card}s that the {@link Player} owns. */
-    private final Set<Card> owned = new HashSet<>();
+    private final Set<Card> owned = new LinkedHashSet<>();
     /** The {@link Noble}s that the {@link Player} has. */
-    private final Set<Noble> nobles = new HashSet<>();
+    private final Set<Noble> nobles = new LinkedHashSet<>();
     /** The history of the {@link Player}, from most to least recent. */
     private final Deque<Action> actions = new LinkedList<>();
     /**
@@ -54,6 +63,11 @@ public final class Player implements ReadOnlyPlayer, Undoable {
         return this.cardGems.get(c);
     }
 
+    @Override
+    public long packedCardGems() {
+        return this.packedCardGems;
+    }
+
     @Override
     public ReadOnlyTokenSet tokens() {
         return this.tokens.clone();
@@ -69,19 +83,54 @@ public final class Player implements ReadOnlyPlayer, Undoable {
         return this.tokens.size();
     }
 
+    @Override
+    public long packedTokens() {
+        return this.packedTokens;
+    }
+
     @Override
     public Set<Card> reserved() {
-        return Set.copyOf(this.reserved);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(this.reserved));
+    }
+
+    @Override
+    public Card reserved(int id) {
+        for (Card card : this.reserved) {
+            if (!card.isHidden() && card.id() == id) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Look up a reserved {@link Card} on behalf of the owner of the
+     * {@link Player}, who knows its hidden {@link Card}s.
+     *
+     * @param id The {@link Card#id()} to look for.
+     * @param unhide Unhides the hidden {@link Card}s of the {@link Player}.
+     * @return The (unhidden) {@link Card} with identifier {@code id} that the
+     *             {@link Player} has reserved, or {@code null} if there is
+     *             none.
+     */
+    public Card reserved(int id, UnaryOperator<Card> unhide) {
+        for (Card card : this.reserved) {
+            Card trueCard = card.isHidden() ? unhide.apply(card) : card;
+            if (trueCard.id() == id) {
+                return trueCard;
+            }
+        }
+        return null;
     }
 
     @Override
     public Set<Card> owned() {
-        return Set.copyOf(this.owned);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(this.owned));
     }
 
     @Override
     public Set<Noble> nobles() {
-        return Set.copyOf(this.nobles);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(this.nobles));
     }
 
     @Override
@@ -99,7 +148,11 @@ public final class Player implements ReadOnlyPlayer, Undoable {
      *             nonnegative).
      */
     public boolean give(TokenColor color, int amt) {
-        return this.tokens.give(color, amt);
+        boolean success = this.tokens.give(color, amt);
+        if (success) {
+            this.packedTokens += amt * PackedGems.one(color);
+        }
+        return success;
     }
 
     /**
@@ -113,7 +166,11 @@ public final class Player implements ReadOnlyPlayer, Undoable {
      *             positive and does not exceed the number of available tokens).
      */
     public boolean take(TokenColor color, int amt) {
-        return this.tokens.take(color, amt);
+        boolean success = this.tokens.take(color, amt);
+        if (success) {
+            this.packedTokens -= amt * PackedGems.one(color);
+        }
+        return success;
     }
 
     @Override
@@ -140,8 +197,29 @@ public final class Player implements ReadOnlyPlayer, Undoable {
 
     @Override
     public boolean canPurchase(Card card) {
-        return !this.owned.contains(card)
-                && card.cost().sub(this.cardGems).dominatedBy(this.tokens);
+        return payment(card) >= 0;
+    }
+
+    @Override
+    public long payment(Card card) {
+        if (card.isHidden() || this.owned.contains(card)) {
+            return -1;
+        }
+        return PackedGems.payment(card.packedCost(), this.packedCardGems,
+                this.packedTokens);
+    }
+
+    @Override
+    public int affordable(CostTable table, long[] payments) {
+        int mask = table.affordable(this.packedCardGems, this.packedTokens,
+                payments);
+        for (int m = mask; m != 0; m &= m - 1) {
+            int i = Integer.numberOfTrailingZeros(m);
+            if (this.owned.contains(table.card(i))) {
+                mask &= ~(1 << i);
+            }
+        }
+        return mask;
     }
 
     @Override
@@ -183,7 +261,9 @@ public final class Player implements ReadOnlyPlayer, Undoable {
         boolean success = canPurchase(card, payment)
                 && this.tokens.take(payment) && this.owned.add(card);
         if (success) {
+            this.packedTokens = PackedGems.pack(this.tokens);
             this.cardGems.incr(card.color());
+            this.packedCardGems += PackedGems.one(card.color());
             this.points += card.points();
             this.actions.push(new Action(this.reserved.remove(card), card, payment));
         }
@@ -199,7 +279,7 @@ public final class Player implements ReadOnlyPlayer, Undoable {
      * @return {@code true} if {@code noble} was successfully added.
      */
     public boolean visitedBy(Noble noble) {
-        if (!noble.satisfiedBy(this.cardGems)) {
+        if (!noble.satisfiedBy(this.packedCardGems)) {
             return false;
         }
         this.nobles.add(noble);
@@ -212,11 +292,13 @@ public final class Player implements ReadOnlyPlayer, Undoable {
     public Player clone() {
         Player clone = new Player();
         clone.cardGems.put(this.cardGems);
+        clone.packedCardGems = this.packedCardGems;
         clone.tokens.put(this.tokens);
+        clone.packedTokens = this.packedTokens;
         clone.reserved.addAll(this.reserved);
         clone.owned.addAll(this.owned);
         clone.nobles.addAll(this.nobles);
-        clone.actions.addAll(this.actions);
+        clone.points = this.points;
         return clone;
     }
 
@@ -331,6 +413,7 @@ public final class Player implements ReadOnlyPlayer, Undoable {
                             Player.this.reserved.add(c);
                         }
                         Player.this.cardGems.decr(c.color());
+                        Player.this.packedCardGems -= PackedGems.one(c.color());
                         Player.this.points -= c.points();
                         break;
                     case VISIT:
@@ -346,6 +429,7 @@ public final class Player implements ReadOnlyPlayer, Undoable {
                 }
             } while (!action.equals(this));
             Player.this.tokens.put(this.tokenSet);
+            Player.this.packedTokens = PackedGems.pack(this.tokenSet);
             return true;
         }
 
@@ -3,6 +3,7 @@ package model.world;
 import java.util.Set;
 
 import model.cards.Card;
+import model.cards.CostTable;
 import model.gems.Color;
 import model.gems.ReadOnlyGemSet;
 import model.gems.ReadOnlyTokenSet;
@@ -25,6 +26,12 @@ public interface ReadOnlyPlayer {
      */
     public int cardGems(Color c);
 
+    /**
+     * @return The gems (from {@link Card}s) the {@link ReadOnlyPlayer} has, in
+     *             packed form (see {@link model.gems.PackedGems}).
+     */
+    public long packedCardGems();
+
     /**
      * @return A deep copy of the tokens the {@link ReadOnlyPlayer} has.
      */
@@ -42,12 +49,27 @@ public interface ReadOnlyPlayer {
      */
     public int tokenCount();
 
+    /**
+     * @return The tokens the {@link ReadOnlyPlayer} has, in packed form (see
+     *             {@link model.gems.PackedGems}).
+     */
+    public long packedTokens();
+
     /**
      * @return An unmodifiable copy of the {@link Card}s that the
      *             {@link ReadOnlyPlayer} has reserved.
      */
     public Set<Card> reserved();
 
+    /**
+     * @param id The {@link Card#id()} to look for.
+     * @return The {@link Card} with identifier {@code id} that the
+     *             {@link ReadOnlyPlayer} has reserved face up, or {@code null}
+     *             if there is none. Hidden {@link Card}s have no identifier
+     *             (see {@link Card#HIDDEN_ID}), so are never found.
+     */
+    public Card reserved(int id);
+
     /**
      * @return An unmodifiable copy of the {@link Card}s that the
      *             {@link ReadOnlyPlayer} owns.
@@ -78,6 +100,31 @@ public interface ReadOnlyPlayer {
      */
     public boolean canPurchase(Card card);
 
+    /**
+     * Compute the canonical payment of {@code card}: as few tokens as
+     * possible, and as few gold tokens as possible (the gems of each
+     * {@link model.gems.Color} the {@link ReadOnlyPlayer} lacks are paid with
+     * tokens of that color first, then with gold tokens).
+     *
+     * @param card The {@link Card} to pay.
+     * @return The payment in packed form (see {@link model.gems.PackedGems}),
+     *             or {@code -1} if {@code card} cannot be bought or the
+     *             {@link ReadOnlyPlayer} cannot afford it.
+     */
+    public long payment(Card card);
+
+    /**
+     * Check at once which {@link Card}s of {@code table} can be bought and
+     * afforded (see {@link CostTable#affordable}).
+     *
+     * @param table The {@link CostTable} of the {@link Card}s to check.
+     * @param payments If not {@code null}, receives the packed payment of the
+     *            {@link Card} of each index of {@code table}.
+     * @return The mask of the indices of the {@link Card}s of {@code table}
+     *             that {@link #canPurchase(Card)}.
+     */
+    public int affordable(CostTable table, long[] payments);
+
     /**
      * @param card The {@link Card} to check.
      * @param tokens The {@link ReadOnlyTokenSet} to buy {@code card} with.
@@ -0,0 +1,30 @@
+package tournament;
+
+/** Conversions between Elo differences and expected scores. */
+public final class Elo {
+
+    /** The smallest score (and one minus the largest) converted to Elo. */
+    private static final double EPSILON = 1e-6;
+
+    /** This class is not to be instantiated. */
+    private Elo() {}
+
+    /**
+     * @param elo An Elo difference.
+     * @return The expected score of a player {@code elo} points stronger than
+     *             their opponent.
+     */
+    public static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * @param score An expected score, clamped to the open interval (0, 1).
+     * @return The Elo difference implied by {@code score}.
+     */
+    public static double fromScore(double score) {
+        double s = Math.min(Math.max(score, EPSILON), 1 - EPSILON);
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+}
@@ -0,0 +1,47 @@
+package tournament;
+
+import java.util.function.IntFunction;
+
+import view.User;
+
+/** An entrant of a {@link Tournament}, i.e. a named factory of {@link User}s. */
+public final class Entrant {
+
+    /** The name of the {@link Entrant} (e.g. {@code "MCTSv2AI 1"}). */
+    private final String name;
+    /** Creates a fresh {@link User} for the given (zero-based) seat. */
+    private final IntFunction<? extends User> factory;
+
+    /**
+     * Create an {@link Entrant}.
+     *
+     * @param name The name of the entrant.
+     * @param factory Creates a fresh {@link User} for the given (zero-based)
+     *            seat. Must be safe to call from multiple threads.
+     */
+    public Entrant(String name, IntFunction<? extends User> factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    /**
+     * @return The name of the {@link Entrant}.
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * @param seat The (zero-based) seat of the {@link User} in the game.
+     * @return A fresh {@link User} to play in {@code seat}.
+     */
+    public User create(int seat) {
+        return this.factory.apply(seat);
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
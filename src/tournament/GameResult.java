@@ -0,0 +1,193 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.Controller;
+import model.world.ReadOnlyPlayer;
+import view.User;
+
+/** The result of a single game of a {@link Tournament}. */
+public final class GameResult {
+
+    /** The (zero-based) index of the game in its {@link Tournament}. */
+    private final int index;
+    /** The seed of the game. */
+    private final long seed;
+    /** The index in the lineup of the {@link Entrant} in each seat. */
+    private final int[] entrants;
+    /** The names of the {@link Entrant}s in the game (in turn order). */
+    private final List<String> names = new ArrayList<>();
+    /** The names of the {@link User}s in the game (in turn order). */
+    private final List<String> users = new ArrayList<>();
+    /** The number of points of each player (in turn order). */
+    private final int[] points;
+    /** The number of cards owned by each player (in turn order). */
+    private final int[] cards;
+    /** The number of rounds that were played. */
+    private final int rounds;
+    /** The winning seats, where bit {@code i} is set iff seat {@code i} won. */
+    private final int winners;
+    /** The wall-clock time taken by the game (in nanoseconds). */
+    private final long nanos;
+    /** The output of {@link Controller#compressedData()} at the end. */
+    private final String data;
+
+    /**
+     * Record the result of a finished game.
+     *
+     * @param index The (zero-based) index of the game in its tournament.
+     * @param lineup The {@link Entrant}s of the tournament.
+     * @param entrants The index in {@code lineup} of the {@link Entrant} in
+     *            each seat.
+     * @param controller The {@link Controller} of the finished game.
+     * @param users The {@link User}s in the game (in turn order).
+     * @param nanos The wall-clock time taken by the game (in nanoseconds).
+     */
+    GameResult(int index, List<Entrant> lineup, int[] entrants,
+               Controller controller, List<? extends User> users, long nanos) {
+        int n = users.size();
+        this.index = index;
+        this.entrants = entrants.clone();
+        this.seed = controller.seed();
+        this.points = new int[n];
+        this.cards = new int[n];
+        for (int i = 0; i < n; ++i) {
+            ReadOnlyPlayer p = controller.player(i);
+            this.names.add(lineup.get(entrants[i]).name());
+            this.users.add(users.get(i).toString());
+            this.points[i] = p.points();
+            this.cards[i] = p.owned().size();
+        }
+        this.rounds = controller.rounds();
+        this.winners = controller.winners();
+        this.nanos = nanos;
+        this.data = controller.compressedData();
+    }
+
+    /**
+     * @return The (zero-based) index of the game in its {@link Tournament}.
+     */
+    public int index() {
+        return this.index;
+    }
+
+    /**
+     * @return The seed of the game, from which it can be replayed.
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * @return The number of players in the game.
+     */
+    public int numberOfPlayers() {
+        return this.points.length;
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The name of the {@link Entrant} in {@code seat}.
+     */
+    public String entrant(int seat) {
+        return this.names.get(seat);
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The (zero-based) index in the lineup of the {@link Tournament}
+     *             of the {@link Entrant} in {@code seat}.
+     */
+    public int entrantIndex(int seat) {
+        return this.entrants[seat];
+    }
+
+    /**
+     * @param entrant The (zero-based) index of an {@link Entrant} in the
+     *            lineup of the {@link Tournament}.
+     * @return The (zero-based) seat of {@code entrant} in the game.
+     * @throws IllegalArgumentException If {@code entrant} did not play.
+     */
+    public int seat(int entrant) {
+        for (int i = 0; i < this.entrants.length; ++i) {
+            if (this.entrants[i] == entrant) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Entrant " + entrant + " did not play.");
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The name of the {@link User} in {@code seat}.
+     */
+    public String user(int seat) {
+        return this.users.get(seat);
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The number of points of the player in {@code seat}.
+     */
+    public int points(int seat) {
+        return this.points[seat];
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The number of cards owned by the player in {@code seat}.
+     */
+    public int cards(int seat) {
+        return this.cards[seat];
+    }
+
+    /**
+     * @return The number of rounds that were played.
+     */
+    public int rounds() {
+        return this.rounds;
+    }
+
+    /**
+     * @return The winning seats, where bit {@code i} is set iff seat {@code i}
+     *             won. More than one bit is set if the game was tied.
+     */
+    public int winners() {
+        return this.winners;
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return {@code true} if the player in {@code seat} won (or tied).
+     */
+    public boolean won(int seat) {
+        return (this.winners & (1 << seat)) != 0;
+    }
+
+    /**
+     * @return The wall-clock time taken by the game (in nanoseconds).
+     */
+    public long nanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return The result in the same format as a single run of
+     *             {@link controller.Main}, i.e.
+     *             {@link Controller#compressedData()} followed by the winners.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.data).append("\n");
+        sb.append("Winner(s)\n");
+        for (int i = 0; i < numberOfPlayers(); ++i) {
+            if (won(i)) {
+                sb.append(user(i)).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+}
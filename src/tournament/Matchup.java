@@ -0,0 +1,145 @@
+package tournament;
+
+import java.util.function.Consumer;
+
+/**
+ * Head-to-head record of one {@link Entrant} against another, whatever their
+ * seats. A game counts as a win for entrant {@code a} if {@code a} won and
+ * {@code b} did not, as a loss if {@code b} won and {@code a} did not, and as
+ * a draw otherwise (both tied for the win, or both lost to somebody else).
+ */
+public final class Matchup implements Consumer<GameResult> {
+
+    /** The (zero-based) index in the lineup of the first {@link Entrant}. */
+    public final int a;
+    /** The (zero-based) index in the lineup of the second {@link Entrant}. */
+    public final int b;
+
+    /** The number of games won by {@link #a} against {@link #b}. */
+    private int wins = 0;
+    /** The number of games drawn between {@link #a} and {@link #b}. */
+    private int draws = 0;
+    /** The number of games lost by {@link #a} against {@link #b}. */
+    private int losses = 0;
+
+    /**
+     * Create an empty {@link Matchup} of entrant {@code a} against entrant
+     * {@code b}.
+     *
+     * @param a The (zero-based) index in the lineup of the first
+     *            {@link Entrant}.
+     * @param b The (zero-based) index in the lineup of the second
+     *            {@link Entrant}.
+     * @throws IllegalArgumentException If {@code a == b}.
+     */
+    public Matchup(int a, int b) {
+        if (a == b) {
+            throw new IllegalArgumentException("An entrant cannot play against itself.");
+        }
+        this.a = a;
+        this.b = b;
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        boolean wonA = result.won(result.seat(this.a));
+        boolean wonB = result.won(result.seat(this.b));
+        if (wonA && !wonB) {
+            ++this.wins;
+        } else if (wonB && !wonA) {
+            ++this.losses;
+        } else {
+            ++this.draws;
+        }
+    }
+
+    /**
+     * @return The number of games won by {@link #a} against {@link #b}.
+     */
+    public int wins() {
+        return this.wins;
+    }
+
+    /**
+     * @return The number of games drawn between {@link #a} and {@link #b}.
+     */
+    public int draws() {
+        return this.draws;
+    }
+
+    /**
+     * @return The number of games lost by {@link #a} against {@link #b}.
+     */
+    public int losses() {
+        return this.losses;
+    }
+
+    /**
+     * @return The number of games recorded.
+     */
+    public int games() {
+        return this.wins + this.draws + this.losses;
+    }
+
+    /**
+     * @return The mean score of {@link #a} (1 per win, 0.5 per draw), or 0.5
+     *             if no games have been recorded.
+     */
+    public double score() {
+        int n = games();
+        return n == 0 ? 0.5 : (this.wins + 0.5 * this.draws) / n;
+    }
+
+    /**
+     * @return The variance of the score of {@link #a} in a single game.
+     */
+    public double variance() {
+        int n = games();
+        if (n == 0) {
+            return 0;
+        }
+        double s = score();
+        return (this.wins * (1 - s) * (1 - s) + this.draws * (0.5 - s) * (0.5 - s)
+                + this.losses * s * s) / n;
+    }
+
+    /**
+     * @param z The number of standard deviations of the interval (e.g. 1.96 for
+     *            a 95% interval).
+     * @return The half-width of the normal-approximation confidence interval of
+     *             {@link #score()}.
+     */
+    public double scoreHalfWidth(double z) {
+        int n = games();
+        return n == 0 ? 0.5 : z * Math.sqrt(variance() / n);
+    }
+
+    /**
+     * @return The Elo difference of {@link #a} over {@link #b} implied by
+     *             {@link #score()}.
+     */
+    public double elo() {
+        return Elo.fromScore(score());
+    }
+
+    /**
+     * @param z The number of standard deviations of the interval (e.g. 1.96 for
+     *            a 95% interval).
+     * @return The lower and upper bounds of the confidence interval of
+     *             {@link #elo()}.
+     */
+    public double[] eloInterval(double z) {
+        double s = score();
+        double h = scoreHalfWidth(z);
+        return new double[] { Elo.fromScore(s - h), Elo.fromScore(s + h) };
+    }
+
+    @Override
+    public String toString() {
+        double[] ci = eloInterval(1.96);
+        return String.format("Entrant %d vs Entrant %d: +%d =%d -%d, score %.3f, Elo %+.1f [%+.1f, %+.1f]",
+                this.a + 1, this.b + 1, this.wins, this.draws, this.losses,
+                score(), elo(), ci[0], ci[1]);
+    }
+
+}
@@ -0,0 +1,286 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incremental Bradley-Terry ratings (on the Elo scale) of named entrants,
+ * computed from multi-player game outcomes.
+ * <p>
+ * Each game of {@code n} players is decomposed into its pairs of players: a
+ * winner beats every non-winner, and two winners (a tie) or two non-winners
+ * draw, a draw counting as half a win for each side. Each pair is weighted by
+ * {@code 1 / (n - 1)}, so every game is worth one game to each player. Every
+ * entrant also plays some virtual draws against a fixed anchor of rating 0,
+ * which keeps ratings finite after lopsided results.
+ * <p>
+ * Ratings are refit after every game by minorization-maximization, starting
+ * from the previous fit, which only takes a handful of iterations. Ratings are
+ * reported relative to the mean rating of all entrants, with confidence
+ * intervals from the inverse of the Fisher information.
+ */
+public final class Ratings implements Consumer<GameResult> {
+
+    /** The scale from natural Bradley-Terry units to Elo. */
+    private static final double ELO_PER_UNIT = 400 / Math.log(10);
+    /** The maximum number of refitting iterations after each game. */
+    private static final int MAX_ITERATIONS = 100;
+    /** Stop refitting once no strength changes by more than this ratio. */
+    private static final double TOLERANCE = 1e-9;
+
+    /** The number of virtual draws of each entrant against the anchor. */
+    private final double prior;
+    /** The index of each entrant in the tables below. */
+    private final Map<String, Integer> index = new HashMap<>();
+    /** The names of the entrants, by index. */
+    private final List<String> names = new ArrayList<>();
+    /** The (weighted) number of wins of {@code i} against {@code j}. */
+    private double[][] wins = new double[0][0];
+    /** The (weighted) number of games between {@code i} and {@code j}. */
+    private double[][] games = new double[0][0];
+    /** The Bradley-Terry strength of each entrant, i.e. {@code exp(rating)}. */
+    private double[] gamma = new double[0];
+    /** The number of games recorded. */
+    private int recorded = 0;
+
+    /**
+     * Create empty {@link Ratings} with one virtual draw against the anchor.
+     */
+    public Ratings() {
+        this(1);
+    }
+
+    /**
+     * Create empty {@link Ratings}.
+     *
+     * @param prior The number of virtual draws of each entrant against an
+     *            anchor of rating 0. Must be positive.
+     * @throws IllegalArgumentException If {@code prior} is not positive.
+     */
+    public Ratings(double prior) {
+        if (prior <= 0) {
+            throw new IllegalArgumentException("The prior must be positive.");
+        }
+        this.prior = prior;
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        List<String> entrants = new ArrayList<>();
+        for (int i = 0; i < result.numberOfPlayers(); ++i) {
+            entrants.add(result.entrant(i));
+        }
+        update(entrants, result.winners());
+    }
+
+    /**
+     * Record the outcome of a game and refit the ratings.
+     *
+     * @param entrants The names of the entrants of the game (in seat order).
+     *            Pairs of seats with the same name are ignored.
+     * @param winners The winning seats, where bit {@code i} is set iff seat
+     *            {@code i} won (as returned by {@link GameResult#winners()}).
+     */
+    public void update(List<String> entrants, int winners) {
+        int n = entrants.size();
+        if (n < 2) {
+            return;
+        }
+        int[] idx = new int[n];
+        for (int i = 0; i < n; ++i) {
+            idx[i] = indexOf(entrants.get(i));
+        }
+        double weight = 1.0 / (n - 1);
+        for (int i = 0; i < n; ++i) {
+            for (int j = i + 1; j < n; ++j) {
+                int a = idx[i];
+                int b = idx[j];
+                if (a == b) {
+                    continue;
+                }
+                boolean wonA = (winners & (1 << i)) != 0;
+                boolean wonB = (winners & (1 << j)) != 0;
+                double scoreA = wonA == wonB ? 0.5 : (wonA ? 1 : 0);
+                this.games[a][b] += weight;
+                this.games[b][a] += weight;
+                this.wins[a][b] += weight * scoreA;
+                this.wins[b][a] += weight * (1 - scoreA);
+            }
+        }
+        ++this.recorded;
+        refit();
+    }
+
+    /**
+     * @param name The name of an entrant.
+     * @return The index of {@code name}, adding it to the tables if needed.
+     */
+    private int indexOf(String name) {
+        Integer i = this.index.get(name);
+        if (i != null) {
+            return i;
+        }
+        int k = this.names.size();
+        this.index.put(name, k);
+        this.names.add(name);
+        double[][] w = new double[k + 1][k + 1];
+        double[][] g = new double[k + 1][k + 1];
+        for (int a = 0; a < k; ++a) {
+            System.arraycopy(this.wins[a], 0, w[a], 0, k);
+            System.arraycopy(this.games[a], 0, g[a], 0, k);
+        }
+        double[] gm = new double[k + 1];
+        System.arraycopy(this.gamma, 0, gm, 0, k);
+        gm[k] = 1;
+        this.wins = w;
+        this.games = g;
+        this.gamma = gm;
+        return k;
+    }
+
+    /** Refit {@link #gamma} by minorization-maximization. */
+    private void refit() {
+        int k = this.names.size();
+        for (int iter = 0; iter < MAX_ITERATIONS; ++iter) {
+            double maxChange = 0;
+            for (int i = 0; i < k; ++i) {
+                double w = this.prior / 2;
+                double d = this.prior / (this.gamma[i] + 1);
+                for (int j = 0; j < k; ++j) {
+                    if (this.games[i][j] > 0) {
+                        w += this.wins[i][j];
+                        d += this.games[i][j] / (this.gamma[i] + this.gamma[j]);
+                    }
+                }
+                double next = w / d;
+                maxChange = Math.max(maxChange, Math.abs(next / this.gamma[i] - 1));
+                this.gamma[i] = next;
+            }
+            if (maxChange < TOLERANCE) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return The number of games recorded.
+     */
+    public int games() {
+        return this.recorded;
+    }
+
+    /**
+     * @return The names of the rated entrants (in order of first appearance).
+     */
+    public List<String> entrants() {
+        return List.copyOf(this.names);
+    }
+
+    /**
+     * @param name The name of an entrant.
+     * @return The Elo rating of {@code name} relative to the mean rating of
+     *             all entrants, or 0 if it has not played yet.
+     */
+    public double rating(String name) {
+        Integer i = this.index.get(name);
+        if (i == null) {
+            return 0;
+        }
+        double mean = 0;
+        for (double g : this.gamma) {
+            mean += Math.log(g);
+        }
+        mean /= this.gamma.length;
+        return ELO_PER_UNIT * (Math.log(this.gamma[i]) - mean);
+    }
+
+    /**
+     * @param z The number of standard deviations of the interval (e.g. 1.96 for
+     *            a 95% interval).
+     * @return The half-width (in Elo) of the confidence interval of the rating
+     *             of each entrant, in order of {@link #entrants()}.
+     */
+    public double[] halfWidths(double z) {
+        int k = this.names.size();
+        // Fisher information of the log-strengths
+        double[][] info = new double[k][k];
+        for (int i = 0; i < k; ++i) {
+            double pa = this.gamma[i] / (this.gamma[i] + 1);
+            info[i][i] += this.prior * pa * (1 - pa);
+            for (int j = 0; j < k; ++j) {
+                if (i != j && this.games[i][j] > 0) {
+                    double p = this.gamma[i] / (this.gamma[i] + this.gamma[j]);
+                    double v = this.games[i][j] * p * (1 - p);
+                    info[i][i] += v;
+                    info[i][j] -= v;
+                }
+            }
+        }
+        double[][] cov = invert(info);
+        // Variance of each log-strength minus the mean log-strength
+        double total = 0;
+        double[] rows = new double[k];
+        for (int i = 0; i < k; ++i) {
+            for (int j = 0; j < k; ++j) {
+                rows[i] += cov[i][j];
+            }
+            total += rows[i];
+        }
+        double[] h = new double[k];
+        for (int i = 0; i < k; ++i) {
+            double var = cov[i][i] - 2 * rows[i] / k + total / ((double)k * k);
+            h[i] = z * ELO_PER_UNIT * Math.sqrt(Math.max(var, 0));
+        }
+        return h;
+    }
+
+    /**
+     * @param m A symmetric positive-definite matrix. It is overwritten.
+     * @return The inverse of {@code m}, by Gauss-Jordan elimination.
+     */
+    private static double[][] invert(double[][] m) {
+        int k = m.length;
+        double[][] inv = new double[k][k];
+        for (int i = 0; i < k; ++i) {
+            inv[i][i] = 1;
+        }
+        for (int c = 0; c < k; ++c) {
+            double pivot = m[c][c];
+            for (int j = 0; j < k; ++j) {
+                m[c][j] /= pivot;
+                inv[c][j] /= pivot;
+            }
+            for (int r = 0; r < k; ++r) {
+                if (r != c && m[r][c] != 0) {
+                    double f = m[r][c];
+                    for (int j = 0; j < k; ++j) {
+                        m[r][j] -= f * m[c][j];
+                        inv[r][j] -= f * inv[c][j];
+                    }
+                }
+            }
+        }
+        return inv;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Ratings after ").append(this.recorded).append(" game(s):\n");
+        double[] h = halfWidths(1.96);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < this.names.size(); ++i) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(this.gamma[b], this.gamma[a]));
+        for (int i : order) {
+            String name = this.names.get(i);
+            sb.append(String.format("%-16s %+8.1f +/- %.1f%n", name, rating(name), h[i]));
+        }
+        return sb.toString();
+    }
+
+}
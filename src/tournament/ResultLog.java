@@ -0,0 +1,130 @@
+package tournament;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The format of binary game-result logs, as written by
+ * {@link ResultLogWriter} and read by {@link ResultLogReader}.
+ * <p>
+ * A log is a {@link #HEADER_SIZE}-byte header followed by fixed-width
+ * {@link #RECORD_SIZE}-byte records, one per game, all little-endian (so they
+ * can be read directly with e.g. {@code numpy.fromfile}). The header is the
+ * {@link #MAGIC} number, the {@link #VERSION}, the record size and a reserved
+ * int. Each record is laid out as follows:
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  seed of the game
+ *      8     8  wall-clock time of the game (in nanoseconds)
+ *     16     4  lineup id (the index of the lineup in the lineup table)
+ *     20     4  index of the game in its tournament
+ *     24     2  number of rounds
+ *     26     1  number of players
+ *     27     1  winning seats (bit i set iff seat i won)
+ *     28     4  points of each seat (one byte each, unused seats are 0)
+ *     32     4  cards owned by each seat (one byte each, unused seats are 0)
+ *     36     4  reserved (0)
+ * </pre>
+ * <p>
+ * The lineup table of a log is a UTF-8 text file next to it, named after it
+ * with the {@link #LINEUPS_SUFFIX} (see {@link #lineups(Path)}). Its line
+ * {@code i} (from 0) holds the names of the entrants of lineup {@code i} in
+ * seat order, separated by {@link #SEPARATOR}. Lineups are appended as they
+ * first appear, before any record refers to them.
+ */
+public final class ResultLog {
+
+    /** The magic number at the start of every log ({@code "SPLR"}). */
+    public static final int MAGIC = 0x524C5053;
+    /** The version of the format. */
+    public static final int VERSION = 2;
+    /** The size of the header (in bytes). */
+    public static final int HEADER_SIZE = 16;
+    /** The size of each record (in bytes). */
+    public static final int RECORD_SIZE = 40;
+    /** The maximum number of players in a record. */
+    public static final int MAX_PLAYERS = 4;
+    /** The byte order of all fields. */
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    /** The suffix of the name of the lineup table of a log. */
+    public static final String LINEUPS_SUFFIX = ".lineups";
+    /** The separator of the names of the entrants in the lineup table. */
+    public static final String SEPARATOR = "\t";
+
+    /** The offset of the seed in a record. */
+    static final int SEED = 0;
+    /** The offset of the time in a record. */
+    static final int NANOS = 8;
+    /** The offset of the lineup id in a record. */
+    static final int LINEUP = 16;
+    /** The offset of the game index in a record. */
+    static final int INDEX = 20;
+    /** The offset of the number of rounds in a record. */
+    static final int ROUNDS = 24;
+    /** The offset of the number of players in a record. */
+    static final int PLAYERS = 26;
+    /** The offset of the winning seats in a record. */
+    static final int WINNERS = 27;
+    /** The offset of the points of each seat in a record. */
+    static final int POINTS = 28;
+    /** The offset of the cards of each seat in a record. */
+    static final int CARDS = 32;
+
+    /** This class is not to be instantiated. */
+    private ResultLog() {}
+
+    /**
+     * @param log The path of a log.
+     * @return The path of the lineup table of {@code log}.
+     */
+    public static Path lineups(Path log) {
+        return log.resolveSibling(log.getFileName() + LINEUPS_SUFFIX);
+    }
+
+    /**
+     * Read the lineup table of a log.
+     *
+     * @param log The path of the log.
+     * @return The lineups of the table, by id, or an empty list if the log
+     *             has no table.
+     * @throws IOException If the table cannot be read.
+     */
+    static List<List<String>> readLineups(Path log) throws IOException {
+        List<List<String>> lineups = new ArrayList<>();
+        try (BufferedReader r = Files.newBufferedReader(lineups(log),
+                StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                lineups.add(List.of(line.split(SEPARATOR, -1)));
+            }
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        return lineups;
+    }
+
+    /**
+     * @param lineup The names of the entrants of a lineup (in seat order).
+     * @return The line of {@code lineup} in the lineup table.
+     * @throws IllegalArgumentException If a name contains the
+     *             {@link #SEPARATOR} or a line break.
+     */
+    static String format(List<String> lineup) {
+        for (String name : lineup) {
+            if (name.contains(SEPARATOR) || name.contains("\n") || name.contains("\r")) {
+                throw new IllegalArgumentException("'" + name
+                        + "' cannot be written to a lineup table.");
+            }
+        }
+        return String.join(SEPARATOR, lineup);
+    }
+
+}
@@ -0,0 +1,216 @@
+package tournament;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Streams the records of a binary log in the {@link ResultLog} format through
+ * memory-mapped windows of the file. The reader is a cursor: {@link #next()}
+ * moves to the next record, whose fields are then read in place without any
+ * allocation. The lineup table of the log is read once, when it is opened.
+ *
+ * <pre>
+ * try (ResultLogReader r = new ResultLogReader(path)) {
+ *     while (r.next()) {
+ *         ... r.rounds() ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class ResultLogReader implements AutoCloseable {
+
+    /** The maximum size of a mapped window (a whole number of records). */
+    private static final long WINDOW_SIZE =
+            (Integer.MAX_VALUE / ResultLog.RECORD_SIZE) * (long)ResultLog.RECORD_SIZE;
+
+    /** The channel of the log. */
+    private final FileChannel channel;
+    /** The number of records in the log. */
+    private final long records;
+    /** The lineup table of the log, by id. */
+    private final List<List<String>> lineups;
+    /** The currently mapped window of records. */
+    private MappedByteBuffer window = null;
+    /** The offset (in the file) of the end of {@link #window}. */
+    private long windowEnd = ResultLog.HEADER_SIZE;
+    /** The offset (in {@link #window}) of the current record. */
+    private int offset = -ResultLog.RECORD_SIZE;
+
+    /**
+     * Open the log at {@code path} (and its lineup table) for reading.
+     *
+     * @param path The path of the log.
+     * @throws IOException If the log or its lineup table cannot be opened, or
+     *             the log is not a valid log.
+     */
+    public ResultLogReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            checkHeader(this.channel);
+            this.records = (this.channel.size() - ResultLog.HEADER_SIZE)
+                    / ResultLog.RECORD_SIZE;
+            this.lineups = List.copyOf(ResultLog.readLineups(path));
+            if (this.records > 0 && this.lineups.isEmpty()) {
+                throw new IOException(path + " has no lineup table.");
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Check that {@code channel} starts with a valid header.
+     *
+     * @param channel The channel of the log.
+     * @throws IOException If the header cannot be read or is invalid.
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ResultLog.HEADER_SIZE)
+                .order(ResultLog.ORDER);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("The log has a truncated header.");
+            }
+        }
+        header.flip();
+        if (header.getInt() != ResultLog.MAGIC) {
+            throw new IOException("The file is not a game-result log.");
+        }
+        if (header.getInt() != ResultLog.VERSION
+                || header.getInt() != ResultLog.RECORD_SIZE) {
+            throw new IOException("The log has an unsupported version.");
+        }
+    }
+
+    /**
+     * @return The number of (complete) records in the log.
+     */
+    public long records() {
+        return this.records;
+    }
+
+    /**
+     * Move to the next record.
+     *
+     * @return {@code true} if there is a next record; {@code false} if the end
+     *             of the log was reached.
+     * @throws IOException If the next window of the log cannot be mapped.
+     */
+    public boolean next() throws IOException {
+        this.offset += ResultLog.RECORD_SIZE;
+        if (this.window != null && this.offset < this.window.limit()) {
+            return true;
+        }
+        long end = ResultLog.HEADER_SIZE + this.records * ResultLog.RECORD_SIZE;
+        if (this.windowEnd >= end) {
+            return false;
+        }
+        long size = Math.min(WINDOW_SIZE, end - this.windowEnd);
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowEnd, size);
+        this.window.order(ResultLog.ORDER);
+        this.windowEnd += size;
+        this.offset = 0;
+        return true;
+    }
+
+    /**
+     * @return The seed of the current game.
+     */
+    public long seed() {
+        return this.window.getLong(this.offset + ResultLog.SEED);
+    }
+
+    /**
+     * @return The wall-clock time taken by the current game (in nanoseconds).
+     */
+    public long nanos() {
+        return this.window.getLong(this.offset + ResultLog.NANOS);
+    }
+
+    /**
+     * @return The lineup table of the log, i.e. the names of the entrants of
+     *             each lineup (in seat order), by lineup id.
+     */
+    public List<List<String>> lineups() {
+        return this.lineups;
+    }
+
+    /**
+     * @return The lineup id of the current game, i.e. its index in
+     *             {@link #lineups()}.
+     */
+    public int lineupId() {
+        return this.window.getInt(this.offset + ResultLog.LINEUP);
+    }
+
+    /**
+     * @return The names of the entrants of the current game (in seat order).
+     * @throws IllegalStateException If the lineup id of the current game is
+     *             not in the lineup table.
+     */
+    public List<String> lineup() {
+        int id = lineupId();
+        if (id < 0 || id >= this.lineups.size()) {
+            throw new IllegalStateException("Lineup " + id + " is not in the lineup table.");
+        }
+        return this.lineups.get(id);
+    }
+
+    /**
+     * @return The index of the current game in its tournament.
+     */
+    public int index() {
+        return this.window.getInt(this.offset + ResultLog.INDEX);
+    }
+
+    /**
+     * @return The number of rounds of the current game.
+     */
+    public int rounds() {
+        return this.window.getShort(this.offset + ResultLog.ROUNDS) & 0xFFFF;
+    }
+
+    /**
+     * @return The number of players of the current game.
+     */
+    public int numberOfPlayers() {
+        return this.window.get(this.offset + ResultLog.PLAYERS);
+    }
+
+    /**
+     * @return The winning seats of the current game, where bit {@code i} is
+     *             set iff seat {@code i} won.
+     */
+    public int winners() {
+        return this.window.get(this.offset + ResultLog.WINNERS) & 0xFF;
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The number of points of {@code seat} in the current game.
+     */
+    public int points(int seat) {
+        return this.window.get(this.offset + ResultLog.POINTS + seat) & 0xFF;
+    }
+
+    /**
+     * @param seat The (zero-based) seat to query.
+     * @return The number of cards owned by {@code seat} in the current game.
+     */
+    public int cards(int seat) {
+        return this.window.get(this.offset + ResultLog.CARDS + seat) & 0xFF;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,179 @@
+package tournament;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Appends {@link GameResult}s to a binary log in the {@link ResultLog} format,
+ * through a buffered {@link FileChannel}. New lineups are appended to the
+ * lineup table of the log (and flushed) as soon as they are seen, so the
+ * table always covers the records on disk.
+ */
+public final class ResultLogWriter implements Consumer<GameResult>, AutoCloseable {
+
+    /** The number of records buffered before writing to {@link #channel}. */
+    private static final int BUFFERED_RECORDS = 4096;
+
+    /** The channel of the log. */
+    private final FileChannel channel;
+    /** The records not yet written to {@link #channel}. */
+    private final ByteBuffer buffer = ByteBuffer
+            .allocateDirect(BUFFERED_RECORDS * ResultLog.RECORD_SIZE)
+            .order(ResultLog.ORDER);
+    /** The ids of the lineups in the lineup table. */
+    private final Map<List<String>, Integer> lineups = new HashMap<>();
+    /** The lineup table of the log. */
+    private final BufferedWriter table;
+
+    /**
+     * Open the log at {@code path} (and its lineup table) for appending,
+     * creating it if needed.
+     *
+     * @param path The path of the log.
+     * @throws IOException If the log or its lineup table cannot be opened, or
+     *             the log exists but is not a valid log.
+     */
+    public ResultLogWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = this.channel.size();
+            if (size == 0) {
+                ByteBuffer header = ByteBuffer.allocate(ResultLog.HEADER_SIZE)
+                        .order(ResultLog.ORDER);
+                header.putInt(ResultLog.MAGIC).putInt(ResultLog.VERSION)
+                      .putInt(ResultLog.RECORD_SIZE).putInt(0).flip();
+                while (header.hasRemaining()) {
+                    this.channel.write(header);
+                }
+                // Any table left next to the path belongs to another log
+                Files.deleteIfExists(ResultLog.lineups(path));
+            } else {
+                ResultLogReader.checkHeader(this.channel);
+                if ((size - ResultLog.HEADER_SIZE) % ResultLog.RECORD_SIZE != 0) {
+                    throw new IOException(path + " ends with a partial record.");
+                }
+                List<List<String>> table = ResultLog.readLineups(path);
+                if (size > ResultLog.HEADER_SIZE && table.isEmpty()) {
+                    throw new IOException(path + " has no lineup table.");
+                }
+                for (int i = 0; i < table.size(); ++i) {
+                    this.lineups.put(table.get(i), i);
+                }
+            }
+            this.channel.position(this.channel.size());
+            this.table = Files.newBufferedWriter(ResultLog.lineups(path),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        try {
+            write(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append {@code result} to the log (possibly buffered).
+     *
+     * @param result The {@link GameResult} to append.
+     * @throws IOException If the buffer or a new lineup could not be
+     *             written.
+     * @throws IllegalArgumentException If {@code result} has too many
+     *             players, or a new lineup cannot be written to the table
+     *             (see {@link ResultLog}).
+     */
+    public void write(GameResult result) throws IOException {
+        int n = result.numberOfPlayers();
+        if (n > ResultLog.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Too many players for a record.");
+        }
+        if (this.buffer.remaining() < ResultLog.RECORD_SIZE) {
+            flush();
+        }
+        int lineup = lineupId(result);
+        ByteBuffer b = this.buffer;
+        b.putLong(result.seed());
+        b.putLong(result.nanos());
+        b.putInt(lineup);
+        b.putInt(result.index());
+        b.putShort((short)result.rounds());
+        b.put((byte)n);
+        b.put((byte)result.winners());
+        for (int i = 0; i < ResultLog.MAX_PLAYERS; ++i) {
+            b.put((byte)(i < n ? result.points(i) : 0));
+        }
+        for (int i = 0; i < ResultLog.MAX_PLAYERS; ++i) {
+            b.put((byte)(i < n ? result.cards(i) : 0));
+        }
+        b.putInt(0);
+    }
+
+    /**
+     * @param result A {@link GameResult}.
+     * @return The id of the lineup of {@code result} in the lineup table,
+     *             which is appended to if the lineup is new.
+     * @throws IOException If a new lineup could not be written.
+     */
+    private int lineupId(GameResult result) throws IOException {
+        List<String> lineup = new ArrayList<>();
+        for (int i = 0; i < result.numberOfPlayers(); ++i) {
+            lineup.add(result.entrant(i));
+        }
+        Integer id = this.lineups.get(lineup);
+        if (id == null) {
+            this.table.write(ResultLog.format(lineup));
+            this.table.newLine();
+            this.table.flush();
+            id = this.lineups.size();
+            this.lineups.put(lineup, id);
+        }
+        return id;
+    }
+
+    /**
+     * Write all buffered records to the log.
+     *
+     * @throws IOException If the records could not be written.
+     */
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            try {
+                this.channel.close();
+            } finally {
+                this.table.close();
+            }
+        }
+    }
+
+}
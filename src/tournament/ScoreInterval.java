@@ -0,0 +1,61 @@
+package tournament;
+
+/**
+ * Stops once the confidence interval of the score of a {@link Matchup} is
+ * narrower than a given precision, or excludes an even score (0.5). Since the
+ * interval is looked at after every game, the latter criterion is somewhat
+ * anti-conservative; prefer {@link Sprt} to accept or reject a hypothesis.
+ */
+public final class ScoreInterval implements StoppingRule {
+
+    /** The head-to-head record being measured. */
+    private final Matchup matchup;
+    /** The number of standard deviations of the interval. */
+    private final double z;
+    /** Stop once the half-width of the interval is at most this. */
+    private final double halfWidth;
+    /** The number of games to play before the interval is looked at. */
+    private final int minGames;
+
+    /**
+     * Create a {@link ScoreInterval}.
+     *
+     * @param matchup The head-to-head record to measure. It is updated by the
+     *            {@link ScoreInterval} and must not be fed results elsewhere.
+     * @param z The number of standard deviations of the interval (e.g. 1.96
+     *            for a 95% interval).
+     * @param halfWidth Stop once the half-width of the interval is at most
+     *            this.
+     * @param minGames The number of games to play before the interval is
+     *            looked at.
+     */
+    public ScoreInterval(Matchup matchup, double z, double halfWidth, int minGames) {
+        this.matchup = matchup;
+        this.z = z;
+        this.halfWidth = halfWidth;
+        this.minGames = minGames;
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        this.matchup.accept(result);
+    }
+
+    @Override
+    public boolean decided() {
+        if (this.matchup.games() < this.minGames) {
+            return false;
+        }
+        double s = this.matchup.score();
+        double h = this.matchup.scoreHalfWidth(this.z);
+        return h <= this.halfWidth || s - h > 0.5 || s + h < 0.5;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Score interval: %.3f +/- %.3f; %s",
+                this.matchup.score(), this.matchup.scoreHalfWidth(this.z),
+                this.matchup);
+    }
+
+}
@@ -0,0 +1,106 @@
+package tournament;
+
+/**
+ * A sequential probability ratio test on the Elo difference of a
+ * {@link Matchup}, deciding between H0: {@code elo == elo0} and H1:
+ * {@code elo == elo1}. The log-likelihood ratio uses the usual normal
+ * approximation of the win/draw/loss (trinomial) score distribution.
+ */
+public final class Sprt implements StoppingRule {
+
+    /** The possible outcomes of the test. */
+    public enum Outcome {
+        /** Not enough games have been played to decide. */
+        UNDECIDED,
+        /** H0 was accepted. */
+        H0,
+        /** H1 was accepted. */
+        H1
+    }
+
+    /** The head-to-head record being tested. */
+    private final Matchup matchup;
+    /** The expected score under H0. */
+    private final double s0;
+    /** The expected score under H1. */
+    private final double s1;
+    /** Accept H0 once the log-likelihood ratio drops to this bound. */
+    private final double lower;
+    /** Accept H1 once the log-likelihood ratio rises to this bound. */
+    private final double upper;
+    /** The result of the test so far. */
+    private Outcome outcome = Outcome.UNDECIDED;
+
+    /**
+     * Create a {@link Sprt}.
+     *
+     * @param matchup The head-to-head record to test. It is updated by the
+     *            {@link Sprt} and must not be fed results elsewhere.
+     * @param elo0 The Elo difference under H0.
+     * @param elo1 The Elo difference under H1. Must be greater than
+     *            {@code elo0}.
+     * @param alpha The probability of accepting H1 when H0 is true.
+     * @param beta The probability of accepting H0 when H1 is true.
+     * @throws IllegalArgumentException If the bounds or error rates are
+     *             invalid.
+     */
+    public Sprt(Matchup matchup, double elo0, double elo1, double alpha, double beta) {
+        if (elo0 >= elo1) {
+            throw new IllegalArgumentException("elo0 must be less than elo1.");
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("alpha and beta must be in (0, 1).");
+        }
+        this.matchup = matchup;
+        this.s0 = Elo.toScore(elo0);
+        this.s1 = Elo.toScore(elo1);
+        this.lower = Math.log(beta / (1 - alpha));
+        this.upper = Math.log((1 - beta) / alpha);
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        this.matchup.accept(result);
+        if (this.outcome == Outcome.UNDECIDED) {
+            double llr = llr();
+            if (llr >= this.upper) {
+                this.outcome = Outcome.H1;
+            } else if (llr <= this.lower) {
+                this.outcome = Outcome.H0;
+            }
+        }
+    }
+
+    @Override
+    public boolean decided() {
+        return this.outcome != Outcome.UNDECIDED;
+    }
+
+    /**
+     * @return The result of the test so far.
+     */
+    public Outcome outcome() {
+        return this.outcome;
+    }
+
+    /**
+     * @return The current log-likelihood ratio of H1 against H0, or 0 while
+     *             the observed score has no variance yet.
+     */
+    public double llr() {
+        double var = this.matchup.variance();
+        if (var <= 0) {
+            return 0;
+        }
+        double s = this.matchup.score();
+        return this.matchup.games() * (this.s1 - this.s0)
+                * (2 * s - this.s0 - this.s1) / (2 * var);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SPRT: %s, LLR %.3f [%.3f, %.3f]; %s",
+                this.outcome, llr(), this.lower, this.upper, this.matchup);
+    }
+
+}
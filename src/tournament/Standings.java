@@ -0,0 +1,101 @@
+package tournament;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Aggregated results of the games of a {@link Tournament}, by {@link Entrant}
+ * (whatever their seats).
+ */
+public final class Standings implements Consumer<GameResult> {
+
+    /** The {@link Entrant}s of the {@link Tournament}. */
+    private final List<Entrant> lineup;
+    /** The number of games won (including ties) by each entrant. */
+    private final int[] wins;
+    /** The number of games tied by each entrant. */
+    private final int[] ties;
+    /** The total number of points scored by each entrant. */
+    private final long[] points;
+    /** The number of games recorded. */
+    private int games = 0;
+    /** The total number of rounds played. */
+    private long rounds = 0;
+    /** The total time taken by the games (in nanoseconds). */
+    private long nanos = 0;
+
+    /**
+     * Create empty {@link Standings} for {@code lineup}.
+     *
+     * @param lineup The {@link Entrant}s of the tournament.
+     */
+    public Standings(List<Entrant> lineup) {
+        this.lineup = List.copyOf(lineup);
+        this.wins = new int[lineup.size()];
+        this.ties = new int[lineup.size()];
+        this.points = new long[lineup.size()];
+    }
+
+    @Override
+    public void accept(GameResult result) {
+        boolean tie = Integer.bitCount(result.winners()) > 1;
+        for (int seat = 0; seat < result.numberOfPlayers(); ++seat) {
+            int i = result.entrantIndex(seat);
+            if (result.won(seat)) {
+                ++this.wins[i];
+                if (tie) {
+                    ++this.ties[i];
+                }
+            }
+            this.points[i] += result.points(seat);
+        }
+        ++this.games;
+        this.rounds += result.rounds();
+        this.nanos += result.nanos();
+    }
+
+    /**
+     * @return The number of games recorded.
+     */
+    public int games() {
+        return this.games;
+    }
+
+    /**
+     * @param entrant The (zero-based) index of the {@link Entrant} to query.
+     * @return The number of games won (including ties) by {@code entrant}.
+     */
+    public int wins(int entrant) {
+        return this.wins[entrant];
+    }
+
+    /**
+     * @param entrant The (zero-based) index of the {@link Entrant} to query.
+     * @return The number of games tied by {@code entrant}.
+     */
+    public int ties(int entrant) {
+        return this.ties[entrant];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Games: ").append(this.games).append("\n");
+        for (int i = 0; i < this.wins.length; ++i) {
+            sb.append("Entrant ").append(i + 1).append(": ")
+              .append(this.lineup.get(i)).append(" - wins ")
+              .append(this.wins[i]).append(" (ties ").append(this.ties[i])
+              .append("), average points ")
+              .append(String.format("%.2f", (double)this.points[i] / Math.max(this.games, 1)))
+              .append("\n");
+        }
+        sb.append("Average rounds: ")
+          .append(String.format("%.2f", (double)this.rounds / Math.max(this.games, 1)))
+          .append("\n");
+        sb.append("Average time per game (ms): ")
+          .append(String.format("%.3f", this.nanos / 1e6 / Math.max(this.games, 1)))
+          .append("\n");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,16 @@
+package tournament;
+
+import java.util.function.Consumer;
+
+/**
+ * A rule that decides whether a {@link Tournament} can stop early. It is fed
+ * every {@link GameResult} as the game finishes.
+ */
+public interface StoppingRule extends Consumer<GameResult> {
+
+    /**
+     * @return {@code true} if enough games have been played to stop.
+     */
+    public boolean decided();
+
+}
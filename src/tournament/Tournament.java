@@ -0,0 +1,270 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import controller.Controller;
+import controller.Metrics;
+import view.User;
+
+/**
+ * Plays many games of the same lineup in a single JVM, spread across a pool of
+ * threads. Every game gets fresh {@link User}s and a fresh {@link Controller}.
+ * <p>
+ * By default, every game seats the lineup in order. So that no
+ * {@link Entrant} benefits from its seat, the lineup can instead be rotated
+ * from one game to the next (see {@link #setRotation}).
+ */
+public final class Tournament {
+
+    /** The number of points needed to move to the final round. */
+    private final int goal;
+    /** The {@link Entrant}s of the games (in turn order of the first game). */
+    private final List<Entrant> lineup;
+    /** The number of games to play. */
+    private final int games;
+    /** The number of threads to play the games on. */
+    private final int threads;
+    /** The seed from which the seed of every game is derived. */
+    private final long seed;
+    /** Notified (on the calling thread) of each game as it finishes. */
+    private final List<Consumer<? super GameResult>> listeners = new ArrayList<>();
+    /** Decides whether to stop before all games are played, if not null. */
+    private StoppingRule stoppingRule = null;
+    /** The {@link Metrics} to add the metrics of every game to, if not null. */
+    private Metrics metrics = null;
+    /** Whether the lineup is rotated from one game to the next. */
+    private boolean rotation = false;
+
+    /**
+     * Create a {@link Tournament} with a random seed.
+     *
+     * @param goal The number of points needed to win.
+     * @param lineup The {@link Entrant}s of the games (in turn order of the
+     *            first game).
+     * @param games The number of games to play.
+     * @param threads The number of threads to play the games on.
+     * @throws IllegalArgumentException If {@code games} or {@code threads} is
+     *             not positive.
+     */
+    public Tournament(int goal, List<Entrant> lineup, int games, int threads) {
+        this(goal, lineup, games, threads, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Create a {@link Tournament}. The seed of each game depends only on
+     * {@code seed} and the index of the game, not on the number of threads.
+     *
+     * @param goal The number of points needed to win.
+     * @param lineup The {@link Entrant}s of the games (in turn order of the
+     *            first game).
+     * @param games The number of games to play.
+     * @param threads The number of threads to play the games on.
+     * @param seed The seed from which the seed of every game is derived.
+     * @throws IllegalArgumentException If {@code games} or {@code threads} is
+     *             not positive.
+     */
+    public Tournament(int goal, List<Entrant> lineup, int games, int threads,
+                      long seed) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("The number of games must be positive.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        this.goal = goal;
+        this.lineup = List.copyOf(lineup);
+        this.games = games;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Add a listener to be notified of each game as it finishes. Listeners are
+     * always called from the thread that called {@link #run()}, so they need
+     * not be thread-safe.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(Consumer<? super GameResult> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Set the rule that decides whether to stop before all the games are
+     * played. Once the rule is {@link StoppingRule#decided()}, no more games
+     * are started, but games already in progress are still reported.
+     *
+     * @param rule The {@link StoppingRule}, or {@code null} to play all games.
+     */
+    public void setStoppingRule(StoppingRule rule) {
+        this.stoppingRule = rule;
+    }
+
+    /**
+     * Set whether the lineup is rotated from one game to the next. If so,
+     * game {@code i} seats entrant {@code (s + i) % n} in seat {@code s},
+     * where {@code n} is the number of entrants, and each run of {@code n}
+     * consecutive games (every rotation of the lineup) is played on the same
+     * seed, i.e. on the same cards and nobles. Rotation keeps the advantage of
+     * the first seats out of the comparison of the entrants, but the output of
+     * each game no longer lists the entrants in the order of the lineup.
+     *
+     * @param rotation Whether to rotate the lineup.
+     */
+    public void setRotation(boolean rotation) {
+        this.rotation = rotation;
+    }
+
+    /**
+     * Set the {@link Metrics} to which the metrics of every game are added.
+     * Each thread records into its own {@link Metrics}, which are only added
+     * to {@code metrics} once all games are played.
+     *
+     * @param metrics The {@link Metrics}, or {@code null} to record nothing.
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Play the games of the {@link Tournament}.
+     *
+     * @return The number of games played.
+     * @throws InterruptedException If interrupted while waiting for a game.
+     */
+    public int run() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        try {
+            CompletionService<GameResult> results = new ExecutorCompletionService<>(pool);
+            List<Metrics> perThread = new ArrayList<>();
+            ThreadLocal<Metrics> metrics = this.metrics == null ? null
+                    : ThreadLocal.withInitial(() -> {
+                        Metrics m = new Metrics();
+                        synchronized (perThread) {
+                            perThread.add(m);
+                        }
+                        return m;
+                    });
+            // Games are submitted in order of index, so that each game gets
+            // the same seed regardless of scheduling
+            SplittableRandom seeds = new SplittableRandom(this.seed);
+            // Every rotation of the lineup is played on the same seed
+            int rotations = this.rotation ? this.lineup.size() : 1;
+            long rotationSeed = 0;
+            // Keep a bounded number of games in flight so that results are
+            // streamed to the listeners as soon as they are available
+            int submitted = 0;
+            int inFlight = 0;
+            int played = 0;
+            while (submitted < this.games && inFlight < 2 * this.threads) {
+                int index = submitted++;
+                if (index % rotations == 0) {
+                    rotationSeed = seeds.nextLong();
+                }
+                long gameSeed = rotationSeed;
+                results.submit(() -> play(index, gameSeed, metrics));
+                ++inFlight;
+            }
+            while (inFlight > 0) {
+                GameResult result = get(results);
+                --inFlight;
+                ++played;
+                for (Consumer<? super GameResult> listener : this.listeners) {
+                    listener.accept(result);
+                }
+                if (this.stoppingRule != null) {
+                    this.stoppingRule.accept(result);
+                }
+                if (submitted < this.games && !stop()) {
+                    int index = submitted++;
+                    if (index % rotations == 0) {
+                        rotationSeed = seeds.nextLong();
+                    }
+                    long gameSeed = rotationSeed;
+                    results.submit(() -> play(index, gameSeed, metrics));
+                    ++inFlight;
+                }
+            }
+            // Every game has finished, so the metrics are no longer written
+            synchronized (perThread) {
+                for (Metrics m : perThread) {
+                    this.metrics.add(m);
+                }
+            }
+            return played;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {@code true} if the {@link #stoppingRule} has been decided.
+     */
+    private boolean stop() {
+        return this.stoppingRule != null && this.stoppingRule.decided();
+    }
+
+    /**
+     * @param results The {@link CompletionService} to take a result from.
+     * @return The next finished {@link GameResult}.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static GameResult get(CompletionService<GameResult> results)
+            throws InterruptedException {
+        try {
+            return results.take().get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Play a single game, with the lineup rotated by {@code index} if
+     * {@link #rotation} is set.
+     *
+     * @param index The (zero-based) index of the game.
+     * @param gameSeed The seed of the game.
+     * @param metrics The {@link Metrics} of the current thread, or
+     *            {@code null} to record nothing.
+     * @return The {@link GameResult} of the game.
+     */
+    private GameResult play(int index, long gameSeed, ThreadLocal<Metrics> metrics) {
+        int n = this.lineup.size();
+        int[] entrants = new int[n];
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < n; ++i) {
+            entrants[i] = this.rotation ? (i + index) % n : i;
+            users.add(this.lineup.get(entrants[i]).create(i));
+        }
+        long start = System.nanoTime();
+        Controller controller = new Controller(this.goal, users, gameSeed);
+        if (metrics != null) {
+            // Group the decisions by entrant, whatever its seat
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < n; ++i) {
+                names.add(this.lineup.get(entrants[i]).name());
+            }
+            controller.setMetrics(metrics.get(), names);
+        }
+        controller.play();
+        long nanos = System.nanoTime() - start;
+        return new GameResult(index, this.lineup, entrants, controller,
+                users, nanos);
+    }
+
+}
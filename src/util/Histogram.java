@@ -0,0 +1,143 @@
+package util;
+
+/**
+ * A histogram of nonnegative {@code long} values (e.g. latencies in
+ * nanoseconds) with log-linear buckets, in the style of HdrHistogram: values
+ * below {@code 2^SUB_BITS} are counted exactly, and every larger power-of-two
+ * range is split into {@code 2^SUB_BITS} equal buckets, so any reported value
+ * is within about 3% of the recorded one. Values of {@code 2^MAX_BITS} or more
+ * share the last bucket (the exact maximum is still tracked).
+ * <p>
+ * Not thread-safe; merge per-thread histograms with {@link #add(Histogram)}.
+ */
+public final class Histogram {
+
+    /** The number of bits of precision of each bucket. */
+    private static final int SUB_BITS = 5;
+    /** The number of buckets per power of two. */
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Values must be below {@code 2^MAX_BITS} to get their own bucket. */
+    private static final int MAX_BITS = 44;
+    /** The number of buckets. */
+    private static final int BUCKETS = (MAX_BITS - SUB_BITS + 1) * SUB_COUNT;
+
+    /** The number of values recorded in each bucket. */
+    private final long[] counts = new long[BUCKETS];
+    /** The number of values recorded. */
+    private long count = 0;
+    /** The sum of the values recorded. */
+    private long sum = 0;
+    /** The smallest value recorded. */
+    private long min = Long.MAX_VALUE;
+    /** The largest value recorded. */
+    private long max = 0;
+
+    /**
+     * @param value A nonnegative value.
+     * @return The index of the bucket of {@code value}.
+     */
+    private static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int)value;
+        }
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_BITS - 1) - SUB_BITS;
+        long top = Math.min(value >>> shift, 2 * SUB_COUNT - 1);
+        return (shift << SUB_BITS) + (int)top;
+    }
+
+    /**
+     * @param bucket The index of a bucket.
+     * @return The largest value counted in {@code bucket}.
+     */
+    private static long highest(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long top = bucket - ((long)shift << SUB_BITS);
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Record {@code value}.
+     *
+     * @param value The value to record. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        ++this.counts[bucket(v)];
+        ++this.count;
+        this.sum += v;
+        this.min = Math.min(this.min, v);
+        this.max = Math.max(this.max, v);
+    }
+
+    /**
+     * Add all the values recorded by {@code other} to {@code this}.
+     *
+     * @param other The {@link Histogram} to add.
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; ++i) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * @return The smallest value recorded, or 0 if there is none.
+     */
+    public long min() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * @return The largest value recorded, or 0 if there is none.
+     */
+    public long max() {
+        return this.max;
+    }
+
+    /**
+     * @return The mean of the values recorded, or 0 if there is none.
+     */
+    public double mean() {
+        return this.count == 0 ? 0 : (double)this.sum / this.count;
+    }
+
+    /**
+     * @param percentile The percentile to query, between 0 and 100.
+     * @return A value (within the precision of the {@link Histogram}) such
+     *             that {@code percentile}% of the values recorded are at most
+     *             that value, or 0 if there is none.
+     * @throws IllegalArgumentException If {@code percentile} is out of range.
+     */
+    public long valueAt(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+        }
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long)Math.ceil(percentile / 100 * this.count), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.max(Math.min(highest(i), this.max), this.min);
+            }
+        }
+        return this.max;
+    }
+
+}
@@ -0,0 +1,37 @@
+package util;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.SplittableRandom;
+
+/** Shuffling driven by a {@link SplittableRandom}. */
+public final class Shuffle {
+
+    /** This class is not to be instantiated. */
+    private Shuffle() {}
+
+    /**
+     * Randomly permute {@code list} using {@code random}, in the same way as
+     * {@link java.util.Collections#shuffle(List, java.util.Random)}.
+     *
+     * @param <T> The type of the elements of {@code list}.
+     * @param list The {@link List} to shuffle.
+     * @param random The source of randomness.
+     */
+    public static <T> void shuffle(List<T> list, SplittableRandom random) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[])list.toArray();
+        for (int i = array.length; i > 1; --i) {
+            int j = random.nextInt(i);
+            T tmp = array[i - 1];
+            array[i - 1] = array[j];
+            array[j] = tmp;
+        }
+        ListIterator<T> it = list.listIterator();
+        for (T t : array) {
+            it.next();
+            it.set(t);
+        }
+    }
+
+}
@@ -1,6 +1,11 @@
 package util;
 
-/** An interface for classes that support undo operations. */
+/**
+ * An interface for classes that support undo operations. Copies of an
+ * {@link Undoable} start with an empty history: undoing a copy never goes back
+ * past the point at which it was made, and {@link Marker}s of the original do
+ * nothing on the copy.
+ */
 public interface Undoable {
 
     /**
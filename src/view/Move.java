@@ -1,9 +1,7 @@
 package view;
 
-import java.util.EnumMap;
+import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import model.cards.Card;
@@ -13,20 +11,34 @@ import model.gems.ReadOnlyTokenSet;
 /** The move of a {@link User}. */
 public final class Move {
 
+    /** The {@link Color}s, by ordinal. */
+    private static final Color[] COLORS = Color.values();
     /**
-     * All the {@link Move}(s) of {@link Type#TAKE_THREE} that have been created
-     * by the class. Used for interning.
+     * All the {@link Move}s of {@link Type#TAKE_TWO}, by {@link Color}
+     * ordinal. Used for interning; never mutated after class initialization,
+     * so it is safe to share between threads.
      */
-    private static final Map<Color, Move> TAKE_2 = new EnumMap<>(Color.class);
+    private static final Move[] TAKE_2 = new Move[COLORS.length];
     /**
-     * All the {@link Move}(s) of {@link Type#TAKE_TWO} that have been created
-     * by the class. Used for interning.
+     * All the {@link Move}s of {@link Type#TAKE_THREE}, by mask of the
+     * {@link Color} ordinals. Used for interning; never mutated after class
+     * initialization, so it is safe to share between threads.
      */
-    private static final Map<Set<Color>, Move> TAKE_3 = new HashMap<>();
+    private static final Move[] TAKE_3 = new Move[1 << COLORS.length];
 
     static {
-        Set<Color> emptySet = EnumSet.noneOf(Color.class);
-        TAKE_3.put(emptySet, new Move(emptySet));
+        for (Color c : COLORS) {
+            TAKE_2[c.ordinal()] = new Move(c);
+        }
+        for (int mask = 0; mask < TAKE_3.length; ++mask) {
+            Set<Color> colors = EnumSet.noneOf(Color.class);
+            for (Color c : COLORS) {
+                if ((mask & 1 << c.ordinal()) != 0) {
+                    colors.add(c);
+                }
+            }
+            TAKE_3[mask] = new Move(Collections.unmodifiableSet(colors));
+        }
     }
 
     /** The {@link Type} of the {@link Move}. */
@@ -71,11 +83,16 @@ public final class Move {
      * @return A {@link Move} of type {@link Type#TAKE_THREE}.
      */
     public static Move takeThree(Set<Color> colors) {
-        if (!TAKE_3.containsKey(colors)) {
-            Set<Color> copy = EnumSet.copyOf(colors);
-            TAKE_3.put(copy, new Move(copy));
-        }
-        return TAKE_3.get(colors);
+        return TAKE_3[MoveCode.mask(colors)];
+    }
+
+    /**
+     * @param colorMask The mask of the {@link Color} ordinals of the tokens to
+     *            take.
+     * @return A {@link Move} of type {@link Type#TAKE_THREE}.
+     */
+    public static Move takeThree(int colorMask) {
+        return TAKE_3[colorMask & (TAKE_3.length - 1)];
     }
 
     /**
@@ -93,13 +110,11 @@ public final class Move {
 
     /**
      * @param color The color of the token to take.
-     * @return A {@link Move} of type {@link Type#TAKE_TWO}.
+     * @return A {@link Move} of type {@link Type#TAKE_TWO}, or {@code null} if
+     *             {@code color} is {@code null}.
      */
     public static Move takeTwo(Color color) {
-        if (!TAKE_2.containsKey(color)) {
-            TAKE_2.put(color, new Move(color));
-        }
-        return TAKE_2.get(color);
+        return color == null ? null : TAKE_2[color.ordinal()];
     }
 
     /**
@@ -154,11 +169,12 @@ public final class Move {
     }
 
     /**
-     * @return The chosen {@link Color}s for {@link Type#TAKE_THREE}. Not
-     *             {@code null} iff {@link #type} is {@link Type#TAKE_THREE}.
+     * @return The chosen {@link Color}s for {@link Type#TAKE_THREE}
+     *             (unmodifiable). Not {@code null} iff {@link #type} is
+     *             {@link Type#TAKE_THREE}.
      */
     public Set<Color> colors() {
-        return Set.copyOf(this.colors);
+        return this.colors;
     }
 
     /**
@@ -0,0 +1,281 @@
+package view;
+
+import java.util.Set;
+
+import model.cards.Card;
+import model.cards.Tier;
+import model.gems.Color;
+import model.gems.PackedGems;
+import model.gems.ReadOnlyTokenSet;
+import model.gems.TokenColor;
+import model.gems.TokenSet;
+import view.Move.Type;
+
+/**
+ * Encoding of {@link Move}s as {@code int}s, so that search trees, move lists
+ * and logs can hold primitives instead of object graphs. The lowest two bits
+ * hold the ordinal of the {@link Type}, and the rest depends on it:
+ * <ul>
+ * <li>{@link Type#TAKE_THREE}: a mask of the {@link Color} ordinals of the
+ * tokens (5 bits).</li>
+ * <li>{@link Type#TAKE_TWO}: the ordinal of the {@link Color} (3 bits).</li>
+ * <li>{@link Type#RESERVE}: a hidden flag (1 bit), followed by the ordinal of
+ * the {@link Tier} of the deck whose top card is reserved (2 bits) if the
+ * flag is set, or by the {@link Card#id()} of the reserved card (7 bits)
+ * otherwise.</li>
+ * <li>{@link Type#PURCHASE}: the {@link Card#id()} of the purchased card (7
+ * bits), followed by the number of tokens of each {@link TokenColor} of the
+ * payment (3 bits each, in the order of the ordinals).</li>
+ * </ul>
+ * Codes are nonnegative, so a negative {@code int} can stand for "no move".
+ * Resolving the {@link Card}s of a code needs a game; see
+ * {@link controller.Controller#decode(int)}.
+ */
+public final class MoveCode {
+
+    /** The number of bits of the {@link Type}. */
+    private static final int TYPE_BITS = 2;
+    /** The number of bits of a {@link Card#id()}. */
+    private static final int ID_BITS = 7;
+    /** The number of bits of each {@link TokenColor} of a payment. */
+    private static final int PAYMENT_BITS = 3;
+    /** The position of the hidden flag of {@link Type#RESERVE}. */
+    private static final int HIDDEN_BIT = TYPE_BITS;
+    /** The position of the payment of {@link Type#PURCHASE}. */
+    private static final int PAYMENT_SHIFT = TYPE_BITS + ID_BITS;
+    /** The largest number of tokens of a {@link TokenColor} in a payment. */
+    public static final int MAX_PAYMENT = (1 << PAYMENT_BITS) - 1;
+
+    /** The {@link Type}s, by ordinal. */
+    private static final Type[] TYPES = Type.values();
+    /** The {@link Color}s, by ordinal. */
+    private static final Color[] COLORS = Color.values();
+    /** The {@link Tier}s, by ordinal. */
+    private static final Tier[] TIERS = Tier.values();
+
+    /** This class is not to be instantiated. */
+    private MoveCode() {}
+
+    /**
+     * @param colorMask The mask of the {@link Color} ordinals of the tokens to
+     *            take.
+     * @return The code of a {@link Move} of type {@link Type#TAKE_THREE}.
+     */
+    public static int takeThree(int colorMask) {
+        return (colorMask & ((1 << COLORS.length) - 1)) << TYPE_BITS
+                | Type.TAKE_THREE.ordinal();
+    }
+
+    /**
+     * @param colors The colors of the tokens to take.
+     * @return The code of a {@link Move} of type {@link Type#TAKE_THREE}.
+     */
+    public static int takeThree(Set<Color> colors) {
+        return takeThree(mask(colors));
+    }
+
+    /**
+     * @param color The color of the tokens to take.
+     * @return The code of a {@link Move} of type {@link Type#TAKE_TWO}.
+     */
+    public static int takeTwo(Color color) {
+        return color.ordinal() << TYPE_BITS | Type.TAKE_TWO.ordinal();
+    }
+
+    /**
+     * @param card The card to reserve. If it is hidden, the code stands for
+     *            the top card of the deck of its {@link Tier}.
+     * @return The code of a {@link Move} of type {@link Type#RESERVE}.
+     */
+    public static int reserve(Card card) {
+        if (card.isHidden()) {
+            return card.tier().ordinal() << (HIDDEN_BIT + 1) | 1 << HIDDEN_BIT
+                    | Type.RESERVE.ordinal();
+        }
+        return card.id() << (HIDDEN_BIT + 1) | Type.RESERVE.ordinal();
+    }
+
+    /**
+     * @param card The card to purchase.
+     * @return The code of a {@link Move} of type {@link Type#PURCHASE}, with
+     *             an empty payment (see {@link #addPayment}).
+     * @throws IllegalArgumentException If {@code card} is hidden (a reserved
+     *             card must be unhidden by its owner to be encoded).
+     */
+    public static int purchase(Card card) {
+        if (card.isHidden()) {
+            throw new IllegalArgumentException("A hidden card cannot be encoded.");
+        }
+        return card.id() << TYPE_BITS | Type.PURCHASE.ordinal();
+    }
+
+    /**
+     * @param card The card to purchase.
+     * @param payment The tokens used to pay the card.
+     * @return The code of a {@link Move} of type {@link Type#PURCHASE}.
+     * @throws IllegalArgumentException If {@code payment} has more than
+     *             {@link #MAX_PAYMENT} tokens of a {@link TokenColor}.
+     */
+    public static int purchase(Card card, ReadOnlyTokenSet payment) {
+        int code = purchase(card);
+        for (TokenColor c : TokenColor.values()) {
+            code = addPayment(code, c, payment.get(c));
+        }
+        return code;
+    }
+
+    /**
+     * @param card The card to purchase.
+     * @param payment The tokens used to pay the card, in packed form (see
+     *            {@link PackedGems}).
+     * @return The code of a {@link Move} of type {@link Type#PURCHASE}.
+     * @throws IllegalArgumentException If {@code payment} has more than
+     *             {@link #MAX_PAYMENT} tokens of a {@link TokenColor}.
+     */
+    public static int purchase(Card card, long payment) {
+        int code = purchase(card);
+        for (TokenColor c : TokenColor.values()) {
+            code = addPayment(code, c, PackedGems.get(payment, c));
+        }
+        return code;
+    }
+
+    /**
+     * @param code The code of a {@link Move} of type {@link Type#PURCHASE}.
+     * @param color The {@link TokenColor} of the tokens to add.
+     * @param amt The number of tokens to add.
+     * @return {@code code} with {@code amt} more tokens of {@code color} in
+     *             its payment.
+     * @throws IllegalArgumentException If the payment would have more than
+     *             {@link #MAX_PAYMENT} tokens of {@code color}.
+     */
+    public static int addPayment(int code, TokenColor color, int amt) {
+        int total = payment(code, color) + amt;
+        if (amt < 0 || total > MAX_PAYMENT) {
+            throw new IllegalArgumentException("Invalid payment.");
+        }
+        return code + (amt << (PAYMENT_SHIFT + PAYMENT_BITS * color.ordinal()));
+    }
+
+    /**
+     * Encode {@code move}.
+     *
+     * @param move The {@link Move} to encode.
+     * @return The code of {@code move}.
+     * @throws IllegalArgumentException If {@code move} cannot be encoded (e.g.
+     *             it has a {@code null} {@link Card}).
+     */
+    public static int encode(Move move) {
+        switch (move.type()) {
+            case TAKE_THREE:
+                return takeThree(move.colors());
+            case TAKE_TWO:
+                if (move.color() == null) {
+                    throw new IllegalArgumentException("The color is null.");
+                }
+                return takeTwo(move.color());
+            case RESERVE:
+                if (move.card() == null) {
+                    throw new IllegalArgumentException("The card is null.");
+                }
+                return reserve(move.card());
+            case PURCHASE:
+                if (move.card() == null || move.payment() == null) {
+                    throw new IllegalArgumentException(
+                            "The card or payment is null.");
+                }
+                return purchase(move.card(), move.payment());
+            default:
+                throw new InternalError("This is impossible!");
+        }
+    }
+
+    /**
+     * @param code A code.
+     * @return The {@link Type} of {@code code}.
+     */
+    public static Type type(int code) {
+        return TYPES[code & ((1 << TYPE_BITS) - 1)];
+    }
+
+    /**
+     * @param code A code of type {@link Type#TAKE_THREE}.
+     * @return The mask of the {@link Color} ordinals of the tokens to take.
+     */
+    public static int colorMask(int code) {
+        return code >>> TYPE_BITS;
+    }
+
+    /**
+     * @param code A code of type {@link Type#TAKE_TWO}.
+     * @return The {@link Color} of the tokens to take.
+     */
+    public static Color color(int code) {
+        return COLORS[code >>> TYPE_BITS];
+    }
+
+    /**
+     * @param code A code of type {@link Type#RESERVE}.
+     * @return {@code true} if {@code code} reserves the top card of a deck.
+     */
+    public static boolean isHidden(int code) {
+        return (code & 1 << HIDDEN_BIT) != 0;
+    }
+
+    /**
+     * @param code A code of type {@link Type#RESERVE} that
+     *            {@link #isHidden(int)}.
+     * @return The {@link Tier} of the deck whose top card is reserved.
+     */
+    public static Tier tier(int code) {
+        return TIERS[code >>> (HIDDEN_BIT + 1)];
+    }
+
+    /**
+     * @param code A code of type {@link Type#PURCHASE}, or of type
+     *            {@link Type#RESERVE} that is not {@link #isHidden(int)}.
+     * @return The {@link Card#id()} of the card of {@code code}.
+     */
+    public static int cardId(int code) {
+        int shift = type(code) == Type.RESERVE ? HIDDEN_BIT + 1 : TYPE_BITS;
+        return (code >>> shift) & ((1 << ID_BITS) - 1);
+    }
+
+    /**
+     * @param code A code of type {@link Type#PURCHASE}.
+     * @param color The {@link TokenColor} to query.
+     * @return The number of tokens of {@code color} in the payment.
+     */
+    public static int payment(int code, TokenColor color) {
+        return (code >>> (PAYMENT_SHIFT + PAYMENT_BITS * color.ordinal()))
+                & MAX_PAYMENT;
+    }
+
+    /**
+     * @param code A code of type {@link Type#PURCHASE}.
+     * @return The payment of {@code code}.
+     */
+    public static ReadOnlyTokenSet payment(int code) {
+        TokenSet payment = new TokenSet();
+        for (TokenColor c : TokenColor.values()) {
+            int amt = payment(code, c);
+            if (amt > 0) {
+                payment.give(c, amt);
+            }
+        }
+        return payment;
+    }
+
+    /**
+     * @param colors A {@link Set} of {@link Color}s.
+     * @return The mask of the ordinals of {@code colors}.
+     */
+    public static int mask(Set<Color> colors) {
+        int mask = 0;
+        for (Color c : colors) {
+            mask |= 1 << c.ordinal();
+        }
+        return mask;
+    }
+
+}